@@ -0,0 +1,181 @@
+package com.hotelio.monolith.bench;
+
+import com.hotelio.monolith.config.QueryCounter;
+import com.hotelio.monolith.config.ReadYourWrites;
+import com.hotelio.monolith.entity.Booking;
+import com.hotelio.monolith.entity.HotelReviewStats;
+import com.hotelio.monolith.entity.PromoCode;
+import com.hotelio.monolith.repository.AppUserRepository;
+import com.hotelio.monolith.repository.BookingRepository;
+import com.hotelio.monolith.repository.HotelBookability;
+import com.hotelio.monolith.repository.HotelRepository;
+import com.hotelio.monolith.repository.HotelReviewStatsRepository;
+import com.hotelio.monolith.repository.PromoCodeRepository;
+import com.hotelio.monolith.repository.ReviewRepository;
+import com.hotelio.monolith.repository.RoomInventoryRepository;
+import com.hotelio.monolith.repository.UserEligibility;
+import com.hotelio.monolith.service.AppUserService;
+import com.hotelio.monolith.service.BookingMetrics;
+import com.hotelio.monolith.service.BookingService;
+import com.hotelio.monolith.service.BookingValidator;
+import com.hotelio.monolith.service.CatalogVersions;
+import com.hotelio.monolith.service.HotelService;
+import com.hotelio.monolith.service.InventoryService;
+import com.hotelio.monolith.service.KnownIds;
+import com.hotelio.monolith.service.PromoCodeService;
+import com.hotelio.monolith.service.ReviewService;
+import com.hotelio.monolith.service.SingleFlight;
+import com.hotelio.monolith.service.TopRatedHotelIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingService.createBooking end to end (validation, pricing, room reservation, save) against
+ * in-memory repositories, so the numbers are the service's own CPU cost without JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingCreateBenchmark {
+
+    private static final String USER_ID = "bench-user";
+    private static final String VIP_USER_ID = "bench-vip";
+    private static final String HOTEL_ID = "bench-hotel";
+    private static final String PROMO_CODE = "BENCH10";
+
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    public BookingValidator.Mode validationMode;
+
+    private ThreadPoolTaskExecutor executor;
+    private BookingService bookingService;
+    private final LocalDate checkIn = LocalDate.now().plusDays(1);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AtomicLong ids = new AtomicLong();
+        Map<String, UserEligibility> users = Map.of(
+                USER_ID, new UserEligibility(USER_ID, "REGULAR", true, false),
+                VIP_USER_ID, new UserEligibility(VIP_USER_ID, "VIP", true, false));
+        HotelBookability hotel = new HotelBookability(HOTEL_ID, true, false, "Bench");
+        PromoCode promo = new PromoCode();
+        promo.setCode(PROMO_CODE);
+        promo.setDiscount(10);
+        promo.setValidUntil(LocalDate.now().plusYears(1));
+
+        AppUserRepository userRepository = InMemoryRepositories.of(AppUserRepository.class)
+                .on("findEligibilityById", args -> Optional.ofNullable(users.get((String) args[0])))
+                .build();
+        HotelRepository hotelRepository = InMemoryRepositories.of(HotelRepository.class)
+                .on("findBookabilityById", args -> HOTEL_ID.equals(args[0]) ? Optional.of(hotel) : Optional.empty())
+                .build();
+        PromoCodeRepository promoRepository = InMemoryRepositories.of(PromoCodeRepository.class)
+                .on("findByCode", args -> PROMO_CODE.equals(args[0]) ? Optional.of(promo) : Optional.empty())
+                .on("findById", args -> PROMO_CODE.equals(args[0]) ? Optional.of(promo) : Optional.empty())
+                .build();
+        HotelReviewStatsRepository statsRepository = InMemoryRepositories.of(HotelReviewStatsRepository.class)
+                .on("findById", args -> Optional.of(new HotelReviewStats((String) args[0], 120, 540)))
+                .build();
+        ReviewRepository reviewRepository = InMemoryRepositories.of(ReviewRepository.class).build();
+        RoomInventoryRepository inventoryRepository = InMemoryRepositories.of(RoomInventoryRepository.class)
+                .on("reserveOne", args -> 1)
+                .build();
+        BookingRepository bookingRepository = InMemoryRepositories.of(BookingRepository.class)
+                .on("save", args -> {
+                    Booking booking = (Booking) args[0];
+                    booking.setId(ids.incrementAndGet());
+                    return booking;
+                })
+                .build();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.initialize();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingMetrics metrics = new BookingMetrics(meterRegistry);
+        InventoryService inventoryService = new InventoryService(inventoryRepository, hotelRepository, 4, 50);
+        KnownIds knownIds = KnownIds.disabled();
+        SingleFlight singleFlight = new SingleFlight(true, meterRegistry);
+        AppUserService userService = new AppUserService(userRepository, knownIds, singleFlight);
+        CatalogVersions catalogVersions = new CatalogVersions(Duration.ofSeconds(60), ReadYourWrites.disabled());
+        HotelService hotelService = new HotelService(hotelRepository,
+                new TopRatedHotelIndex(hotelRepository, false, 50, Duration.ofMinutes(5)), inventoryService,
+                ReadYourWrites.disabled(), catalogVersions, knownIds, singleFlight);
+        bookingService = new BookingService(
+                bookingRepository,
+                new PromoCodeService(promoRepository, userService, knownIds),
+                new ReviewService(reviewRepository, statsRepository, catalogVersions, singleFlight),
+                userService,
+                hotelService,
+                inventoryService,
+                new BookingValidator(executor, validationMode, Duration.ofSeconds(2), meterRegistry, metrics),
+                new TransactionTemplate(new NoOpTransactionManager()),
+                new QueryCounter(),
+                meterRegistry,
+                metrics,
+                ReadYourWrites.disabled(),
+                null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Booking regularUserNoPromo() {
+        return bookingService.createBooking(USER_ID, HOTEL_ID, null, checkIn, checkIn.plusDays(1));
+    }
+
+    @Benchmark
+    public Booking vipUserWithPromo() {
+        return bookingService.createBooking(VIP_USER_ID, HOTEL_ID, PROMO_CODE, checkIn, checkIn.plusDays(3));
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotelio.monolith.bench;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.hotelio.proto.booking.BookingListResponse;
+import com.hotelio.proto.booking.BookingResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protobuf cost of the booking-service contract: building and serializing BookingResponse and
+ * BookingListResponse of various sizes, and parsing them back as the monolith's gRPC client does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingProtoBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int bookings;
+
+    private final String createdAt = Instant.now().toString();
+    private byte[] responseBytes;
+    private byte[] listBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        responseBytes = response(1).toByteArray();
+        listBytes = list().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeResponse() {
+        return response(1).toByteArray();
+    }
+
+    @Benchmark
+    public BookingResponse parseResponse() throws InvalidProtocolBufferException {
+        return BookingResponse.parseFrom(responseBytes);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeList() {
+        return list().toByteArray();
+    }
+
+    @Benchmark
+    public BookingListResponse parseList() throws InvalidProtocolBufferException {
+        return BookingListResponse.parseFrom(listBytes);
+    }
+
+    private BookingListResponse list() {
+        BookingListResponse.Builder builder = BookingListResponse.newBuilder();
+        for (int i = 0; i < bookings; i++) {
+            builder.addBookings(response(i));
+        }
+        return builder.build();
+    }
+
+    private BookingResponse response(long id) {
+        return BookingResponse.newBuilder()
+                .setId(Long.toString(id))
+                .setUserId("user-" + (id % 1000))
+                .setHotelId("hotel-" + (id % 100))
+                .setPromoCode(id % 3 == 0 ? "SUMMER10" : "")
+                .setCreatedAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotelio.monolith.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Spring Data repository stand-ins for benchmarks: a JDK proxy that answers the listed methods
+ * by name and fails on anything else, so a benchmark never silently measures an unstubbed call.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <R> Builder<R> of(Class<R> type) {
+        return new Builder<>(type);
+    }
+
+    static final class Builder<R> {
+        private final Class<R> type;
+        private final Map<String, Function<Object[], Object>> methods = new HashMap<>();
+
+        private Builder(Class<R> type) {
+            this.type = type;
+        }
+
+        Builder<R> on(String method, Function<Object[], Object> answer) {
+            methods.put(method, answer);
+            return this;
+        }
+
+        R build() {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+                Function<Object[], Object> answer = methods.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                return switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + "(in-memory)";
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                };
+            });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hotelio.monolith.bench;
+
+import com.hotelio.monolith.config.ReadYourWrites;
+import com.hotelio.monolith.entity.HotelReviewStats;
+import com.hotelio.monolith.entity.Review;
+import com.hotelio.monolith.repository.HotelReviewStatsRepository;
+import com.hotelio.monolith.repository.ReviewRepository;
+import com.hotelio.monolith.repository.ReviewTotals;
+import com.hotelio.monolith.service.CatalogVersions;
+import com.hotelio.monolith.service.ReviewAggregate;
+import com.hotelio.monolith.service.ReviewService;
+import com.hotelio.monolith.service.SingleFlight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReviewService aggregation at growing review counts. The in-memory totals query walks every
+ * review like the GROUP BY would, so "fromTotals" (stats row missing) grows with the count while
+ * "fromStatsRow" (the normal path) must stay flat; "scanAll" is the old load-everything approach.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewAggregationBenchmark {
+
+    private static final String HOTEL_ID = "bench-hotel";
+
+    @Param({"10", "1000", "100000"})
+    public int reviewCount;
+
+    private List<Review> reviews;
+    private ReviewService withStatsRow;
+    private ReviewService withoutStatsRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reviews = new ArrayList<>(reviewCount);
+        long ratingSum = 0;
+        for (int i = 0; i < reviewCount; i++) {
+            Review review = new Review();
+            review.setHotelId(HOTEL_ID);
+            review.setRating(ThreadLocalRandom.current().nextInt(1, 6));
+            ratingSum += review.getRating();
+            reviews.add(review);
+        }
+        HotelReviewStats stats = new HotelReviewStats(HOTEL_ID, reviewCount, ratingSum);
+
+        ReviewRepository reviewRepository = InMemoryRepositories.of(ReviewRepository.class)
+                .on("sumRatingsForHotel", args -> Optional.of(totals(reviews)))
+                .on("findByHotelId", args -> reviews)
+                .build();
+        CatalogVersions catalogVersions = new CatalogVersions(Duration.ofSeconds(60), ReadYourWrites.disabled());
+        withStatsRow = new ReviewService(reviewRepository, InMemoryRepositories.of(HotelReviewStatsRepository.class)
+                .on("findById", args -> Optional.of(stats))
+                .build(), catalogVersions, SingleFlight.disabled());
+        withoutStatsRow = new ReviewService(reviewRepository, InMemoryRepositories.of(HotelReviewStatsRepository.class)
+                .on("findById", args -> Optional.empty())
+                .on("save", args -> args[0])
+                .build(), catalogVersions, SingleFlight.disabled());
+    }
+
+    @Benchmark
+    public Optional<ReviewAggregate> fromStatsRow() {
+        return withStatsRow.getAggregateForHotel(HOTEL_ID);
+    }
+
+    @Benchmark
+    public Optional<ReviewAggregate> fromTotals() {
+        return withoutStatsRow.getAggregateForHotel(HOTEL_ID);
+    }
+
+    @Benchmark
+    public double scanAll() {
+        return reviews.stream().mapToInt(Review::getRating).average().orElse(0);
+    }
+
+    private static ReviewTotals totals(List<Review> reviews) {
+        long sum = 0;
+        for (Review review : reviews) {
+            sum += review.getRating();
+        }
+        long ratingSum = sum;
+        return new ReviewTotals() {
+            @Override
+            public String getHotelId() {
+                return HOTEL_ID;
+            }
+
+            @Override
+            public long getReviewCount() {
+                return reviews.size();
+            }
+
+            @Override
+            public long getRatingSum() {
+                return ratingSum;
+            }
+        };
+    }
+}
@@ -6,8 +6,10 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.hotelio", "com.hotelio.monolith"})
+@EnableScheduling
 public class MonolithApplication {
     public static void main(String[] args) {
         SpringApplication.run(MonolithApplication.class, args);
@@ -0,0 +1,200 @@
+package com.hotelio.monolith.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-caller and per-hotel rate limits in front of the booking and catalog controllers, so one scraper or
+ * partner cannot take every request thread and pooled connection. Each endpoint group has a token bucket per
+ * client address, per caller (the userId parameter) and per hotel (parameter or path variable). The address
+ * is always charged, since userId is whatever the client sends and a fresh one per request must not buy a
+ * fresh bucket; a request that finds any bucket empty is answered 429 with Retry-After before any query runs.
+ * <p>
+ * Buckets live in size-bounded Caffeine maps (admission.max-keys per group and key kind). A bucket idle for
+ * as long as it takes to refill is dropped, which changes nothing since a new bucket starts full; under
+ * size pressure frequency-based eviction keeps the busiest callers' buckets, so rotating through fresh ids
+ * does not reset them.
+ */
+@Component
+public class AdmissionControl implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControl.class);
+
+    private final boolean enabled;
+    private final Group bookingWrite;
+    private final Group bookingRead;
+    private final Group catalog;
+
+    public AdmissionControl(@Value("${admission.enabled:true}") boolean enabled,
+                            @Value("${admission.max-keys:100000}") long maxKeys,
+                            @Value("${admission.booking-write:address=50/100,user=10/20,hotel=100/200}") String bookingWrite,
+                            @Value("${admission.booking-read:address=250/500,user=50/100}") String bookingRead,
+                            @Value("${admission.catalog:address=1000/2000,user=200/400,hotel=500/1000}") String catalog,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.bookingWrite = new Group("booking-write", bookingWrite, maxKeys, meterRegistry);
+        this.bookingRead = new Group("booking-read", bookingRead, maxKeys, meterRegistry);
+        this.catalog = new Group("catalog", catalog, maxKeys, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(this).addPathPatterns("/api/**");
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Group group = groupOf(request);
+        if (group == null) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        // the userId parameter names the caller; a userId path variable (/api/users/{userId}) is what is read
+        String userId = request.getParameter("userId");
+        String hotelId = firstNonNull(pathVariable(pathVariables, "hotelId"), request.getParameter("hotelId"));
+        if (hotelId == null && request.getRequestURI().startsWith("/api/hotels/")) {
+            hotelId = pathVariable(pathVariables, "id");
+        }
+
+        long now = System.nanoTime();
+        long wait = group.address.tryAcquire(request.getRemoteAddr(), now);
+        if (wait == 0 && userId != null) {
+            wait = group.user.tryAcquire(userId, now);
+        }
+        if (wait == 0 && hotelId != null) {
+            wait = group.hotel.tryAcquire(hotelId, now);
+        }
+        if (wait == 0) {
+            return true;
+        }
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L));
+        log.debug("Rejected {} {} for user {} hotel {}, retry after {}s",
+                request.getMethod(), request.getRequestURI(), userId, hotelId, retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        return false;
+    }
+
+    private Group groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/bookings")) {
+            return "POST".equals(request.getMethod()) ? bookingWrite : bookingRead;
+        }
+        // cache flushes send the next reads to the database, so they count against the catalog
+        if (path.startsWith("/api/hotels") || path.startsWith("/api/reviews")
+                || path.startsWith("/api/promos") || path.startsWith("/api/users") || path.startsWith("/api/admin")) {
+            return catalog;
+        }
+        return null;
+    }
+
+    private static String pathVariable(Map<String, String> pathVariables, String name) {
+        return pathVariables != null ? pathVariables.get(name) : null;
+    }
+
+    private static String firstNonNull(String first, String second) {
+        return first != null ? first : second;
+    }
+
+    private static final class Group {
+        private final Buckets address;
+        private final Buckets user;
+        private final Buckets hotel;
+
+        // spec: "address=<per second>/<burst>,user=...,hotel=...", a kind left out is not limited
+        Group(String name, String spec, long maxKeys, MeterRegistry meterRegistry) {
+            Buckets address = null;
+            Buckets user = null;
+            Buckets hotel = null;
+            for (String entry : spec.split(",")) {
+                if (entry.isBlank()) continue;
+                String[] kindAndLimit = entry.trim().split("=");
+                String[] rateAndBurst = kindAndLimit.length == 2 ? kindAndLimit[1].split("/") : new String[0];
+                if (rateAndBurst.length != 2) {
+                    throw new IllegalArgumentException("admission." + name + ": expected <kind>=<rate>/<burst>, got " + entry);
+                }
+                String kind = kindAndLimit[0].trim();
+                if (!"address".equals(kind) && !"user".equals(kind) && !"hotel".equals(kind)) {
+                    throw new IllegalArgumentException("admission." + name + ": unknown key kind " + entry);
+                }
+                Buckets buckets = new Buckets(Double.parseDouble(rateAndBurst[0].trim()),
+                        Long.parseLong(rateAndBurst[1].trim()), maxKeys,
+                        Counter.builder("admission.rejected")
+                                .description("Requests answered 429 because a token bucket was empty")
+                                .tag("group", name)
+                                .tag("key", kind)
+                                .register(meterRegistry));
+                switch (kind) {
+                    case "address" -> address = buckets;
+                    case "user" -> user = buckets;
+                    default -> hotel = buckets;
+                }
+            }
+            this.address = address != null ? address : Buckets.UNLIMITED;
+            this.user = user != null ? user : Buckets.UNLIMITED;
+            this.hotel = hotel != null ? hotel : Buckets.UNLIMITED;
+        }
+    }
+
+    private static final class Buckets {
+        static final Buckets UNLIMITED = new Buckets();
+
+        private final double rate;
+        private final long burst;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        private Buckets() {
+            this.rate = 0;
+            this.burst = 0;
+            this.buckets = null;
+            this.rejected = null;
+        }
+
+        Buckets(double rate, long burst, long maxKeys, Counter rejected) {
+            if (rate <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Admission limits need a positive rate and burst, got "
+                        + rate + "/" + burst);
+            }
+            this.rate = rate;
+            this.burst = burst;
+            // idle for a full refill: the bucket is full again, dropping it loses nothing
+            Duration refill = Duration.ofNanos(Math.max(TimeUnit.SECONDS.toNanos(1), (long) (burst / rate * 1e9)));
+            this.buckets = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(refill).build();
+            this.rejected = rejected;
+        }
+
+        long tryAcquire(String key, long now) {
+            if (buckets == null) {
+                return 0;
+            }
+            long wait = buckets.get(key, k -> new TokenBucket(rate, burst)).tryAcquire(now);
+            if (wait > 0) {
+                rejected.increment();
+            }
+            return wait;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.hotelio.monolith.config;
+
+import com.hotelio.monolith.service.BookingService;
+import com.hotelio.monolith.service.BookingServiceClient;
+import com.hotelio.monolith.service.RemoteBookingService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.NameResolverRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in client for booking-service (booking.service.client.enabled=true) that replaces the
+ * blocking proxy from libs/p-o-y. The channel's service config gives:
+ * - round_robin across every address the target resolves to (dns:/// or static:///a:9090,b:9090);
+ * - CreateBooking never retried by policy: UNAVAILABLE also follows a dropped connection after the booking was
+ *   committed, and the call is not idempotent; gRPC still transparently retries attempts that never left the client;
+ * - ListBookings hedged: a second copy goes to another replica if the first has not answered within hedging-delay;
+ * - retryThrottling as the retry budget: retries and hedges stop once failures drain the token bucket.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.service.client.enabled", havingValue = "true")
+public class BookingGrpcClientConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingGrpcClientConfig.class);
+    private static final String SERVICE = "booking.BookingService";
+
+    static {
+        NameResolverRegistry.getDefaultRegistry().register(new StaticNameResolverProvider());
+    }
+
+    // BookingServiceProxyConfig (libs/p-o-y) would register a second @Primary BookingService on its blocking stub
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor legacyBookingProxyRemover() {
+        return registry -> {
+            for (String name : List.of("grpcBookingService", "grpcChannel")) {
+                if (registry.containsBeanDefinition(name)) {
+                    registry.removeBeanDefinition(name);
+                }
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ManagedChannel bookingServiceChannel(
+            @Value("${booking.service.client.target}") String target,
+            @Value("${booking.service.client.max-attempts:3}") int maxAttempts,
+            @Value("${booking.service.client.hedging-delay:PT0.1S}") Duration hedgingDelay,
+            @Value("${booking.service.client.retry-budget.max-tokens:10}") int maxTokens,
+            @Value("${booking.service.client.retry-budget.token-ratio:0.1}") double tokenRatio) {
+        log.info("Connecting to booking-service at {} (round_robin, {} attempts, hedging after {})",
+                target, maxAttempts, hedgingDelay);
+        return ManagedChannelBuilder.forTarget(target)
+                .usePlaintext()
+                .defaultServiceConfig(serviceConfig(maxAttempts, hedgingDelay, maxTokens, tokenRatio))
+                .enableRetry()
+                .keepAliveTime(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    public BookingServiceClient bookingServiceClient(
+            ManagedChannel bookingServiceChannel,
+            @Value("${booking.service.client.create-deadline:PT2S}") Duration createDeadline,
+            @Value("${booking.service.client.list-deadline:PT1S}") Duration listDeadline) {
+        return new BookingServiceClient(bookingServiceChannel, createDeadline, listDeadline);
+    }
+
+    @Bean
+    @Primary
+    public BookingService remoteBookingService(BookingServiceClient bookingServiceClient) {
+        return new RemoteBookingService(bookingServiceClient);
+    }
+
+    // grpc-java takes the service config as JSON-like maps: numbers as Double, durations as "1.5s"
+    private static Map<String, Object> serviceConfig(int maxAttempts, Duration hedgingDelay,
+                                                     int maxTokens, double tokenRatio) {
+        Map<String, Object> listBookings = Map.of(
+                "name", List.of(Map.of("service", SERVICE, "method", "ListBookings")),
+                "hedgingPolicy", Map.of(
+                        "maxAttempts", (double) maxAttempts,
+                        "hedgingDelay", seconds(hedgingDelay),
+                        "nonFatalStatusCodes", List.of("UNAVAILABLE")));
+        return Map.of(
+                "loadBalancingConfig", List.of(Map.of("round_robin", Map.of())),
+                "methodConfig", List.of(listBookings),
+                "retryThrottling", Map.of(
+                        "maxTokens", (double) maxTokens,
+                        "tokenRatio", tokenRatio));
+    }
+
+    private static String seconds(Duration duration) {
+        return (duration.toNanos() / 1e9) + "s";
+    }
+}
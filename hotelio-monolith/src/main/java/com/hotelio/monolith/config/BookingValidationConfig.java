@@ -0,0 +1,48 @@
+package com.hotelio.monolith.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class BookingValidationConfig {
+
+    // Bounded pool for PARALLEL booking validation; when saturated the caller runs the lookup itself.
+    // Lookups count towards the caller's booking.create.queries through the QueryCounter decorator.
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor bookingValidationExecutor(
+            @Value("${booking.validation.threads:16}") int threads,
+            @Value("${booking.validation.queue-capacity:256}") int queueCapacity,
+            QueryCounter queryCounter) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-validation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setTaskDecorator(queryCounter.taskDecorator());
+        return executor;
+    }
+
+    // With virtual threads every lookup gets its own thread; the limit keeps the fan-out from draining the JDBC pool
+    @Bean(name = "bookingValidationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualBookingValidationExecutor(
+            @Value("${booking.validation.max-in-flight:256}") int maxInFlight,
+            QueryCounter queryCounter) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("booking-validation-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxInFlight);
+        executor.setTaskDecorator(queryCounter.taskDecorator());
+        return executor;
+    }
+}
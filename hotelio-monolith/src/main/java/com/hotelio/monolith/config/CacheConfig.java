@@ -0,0 +1,42 @@
+package com.hotelio.monolith.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Near cache for reference data (users, hotels, promo codes). Each region is bounded by
+ * size and TTL via a Caffeine spec and records stats, which actuator exposes as cache.* metrics.
+ * Evictions issued inside a transaction are applied after it commits, so a read racing the write
+ * cannot put the old row back for a whole TTL.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String HOTELS = "hotels";
+    public static final String PROMOS = "promos";
+    // flag projections (UserEligibility, HotelBookability) used by validation, evicted together with the entity
+    public static final String USER_FLAGS = "userFlags";
+    public static final String HOTEL_FLAGS = "hotelFlags";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${reference-cache.users:maximumSize=10000,expireAfterWrite=60s}") String usersSpec,
+            @Value("${reference-cache.hotels:maximumSize=10000,expireAfterWrite=60s}") String hotelsSpec,
+            @Value("${reference-cache.promos:maximumSize=1000,expireAfterWrite=60s}") String promosSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS, Caffeine.from(usersSpec).recordStats().build());
+        cacheManager.registerCustomCache(USER_FLAGS, Caffeine.from(usersSpec).recordStats().build());
+        cacheManager.registerCustomCache(HOTELS, Caffeine.from(hotelsSpec).recordStats().build());
+        cacheManager.registerCustomCache(HOTEL_FLAGS, Caffeine.from(hotelsSpec).recordStats().build());
+        cacheManager.registerCustomCache(PROMOS, Caffeine.from(promosSpec).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotelio.monolith.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts SQL statements prepared by Hibernate on the current thread.
+ * Callers take a reading before and after a unit of work and use the difference.
+ * Tasks wrapped by {@link #taskDecorator()} count towards the thread that submitted them,
+ * so lookups fanned out to an executor show up in the caller's reading.
+ */
+@Component
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    public long current() {
+        return COUNT.get().get();
+    }
+
+    public TaskDecorator taskDecorator() {
+        return task -> {
+            AtomicLong submitter = COUNT.get();
+            return () -> {
+                AtomicLong own = COUNT.get();
+                COUNT.set(submitter);
+                try {
+                    task.run();
+                } finally {
+                    COUNT.set(own);
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.hotelio.monolith.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for replica routing: after a write under a key ("user:42", "hotel:h1"), reads under the
+ * same key go to the primary for a short window, even in read-only transactions. The window should outlast
+ * datasource.replica.max-lag, beyond which ReplicaLagMonitor sends every read to the primary anyway.
+ * Tracked per instance; without a replica (datasource.replica.url unset) nothing is recorded.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${datasource.replica.url:}") String replicaUrl,
+                          @Value("${datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+        this.recentWrites = replicaUrl.isBlank() || window.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+    }
+
+    public static ReadYourWrites disabled() {
+        return new ReadYourWrites("", Duration.ZERO);
+    }
+
+    public void recordWrite(String key) {
+        if (recentWrites != null && key != null) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    public <T> T read(String key, Supplier<T> query) {
+        if (recentWrites == null || key == null || PINNED.get() != null || recentWrites.getIfPresent(key) == null) {
+            return query.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    public void read(String key, Runnable query) {
+        read(key, () -> {
+            query.run();
+            return null;
+        });
+    }
+
+    static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hotelio.monolith.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica for its replay lag. While the lag exceeds max-lag, or the probe fails, read-only
+ * transactions are routed to the primary. Starts out lagging so nothing reads the replica before the first probe.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // an idle replica that has replayed everything reports 0, not the age of the last replayed commit
+    private static final String LAG_SQL = "select case " +
+            "when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean lagging = true;
+    private boolean probeFailing;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(1);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication replay lag of the read replica; NaN while the probe fails")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-probe-interval:PT1S}")
+    public void probe() {
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            probeFailing = false;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            if (!probeFailing) {
+                log.warn("Replica lag probe failed, reading from the primary: {}", e.getMessage());
+                probeFailing = true;
+            }
+        }
+        boolean behind = probeFailing || lagSeconds > maxLagSeconds;
+        if (behind != lagging && !probeFailing) {
+            log.info(behind ? "Replica is {}s behind, routing reads to the primary" : "Replica caught up ({}s), routing reads to it",
+                    lagSeconds);
+        }
+        lagging = behind;
+    }
+
+    public boolean isLagging() {
+        return lagging;
+    }
+}
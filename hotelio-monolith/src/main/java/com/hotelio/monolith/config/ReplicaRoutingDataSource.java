@@ -0,0 +1,51 @@
+package com.hotelio.monolith.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else:
+ * read-write transactions, non-transactional access, reads pinned by {@link ReadYourWrites} and every read
+ * while the replica is lagging.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                             MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryRoutes = routeCounter(meterRegistry, Route.PRIMARY);
+        this.replicaRoutes = routeCounter(meterRegistry, Route.REPLICA);
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWrites.isPinned() && !lagMonitor.isLagging()) {
+            replicaRoutes.increment();
+            return Route.REPLICA;
+        }
+        primaryRoutes.increment();
+        return Route.PRIMARY;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route) {
+        return Counter.builder("datasource.route")
+                .description("Connections checked out per target pool")
+                .tag("target", route.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotelio.monolith.config;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.Status;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves "static:///host1:9090,host2:9090" to a fixed replica list, for environments without a
+ * DNS name that returns every booking-service instance (dns:/// covers the headless-service case).
+ */
+public class StaticNameResolverProvider extends NameResolverProvider {
+
+    public static final String SCHEME = "static";
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!SCHEME.equals(targetUri.getScheme())) {
+            return null;
+        }
+        List<String> replicas = new ArrayList<>();
+        for (String hostPort : targetUri.getPath().substring(1).split(",")) {
+            if (hostPort.trim().lastIndexOf(':') < 0) {
+                throw new IllegalArgumentException("Replica address must be host:port, got '" + hostPort + "'");
+            }
+            replicas.add(hostPort.trim());
+        }
+        return new NameResolver() {
+            private Listener2 listener;
+
+            @Override
+            public String getServiceAuthority() {
+                return replicas.get(0);
+            }
+
+            @Override
+            public void start(Listener2 listener) {
+                this.listener = listener;
+                resolve();
+            }
+
+            @Override
+            public void refresh() {
+                resolve();
+            }
+
+            // re-resolves the host names on every refresh, so a restarted replica with a new IP is picked up
+            private void resolve() {
+                List<EquivalentAddressGroup> addresses = new ArrayList<>();
+                for (String replica : replicas) {
+                    int colon = replica.lastIndexOf(':');
+                    InetSocketAddress address = new InetSocketAddress(
+                            replica.substring(0, colon), Integer.parseInt(replica.substring(colon + 1)));
+                    if (!address.isUnresolved()) {
+                        addresses.add(new EquivalentAddressGroup(address));
+                    }
+                }
+                if (addresses.isEmpty()) {
+                    listener.onError(Status.UNAVAILABLE.withDescription("No booking-service replica resolved: " + replicas));
+                    return;
+                }
+                listener.onResult(ResolutionResult.newBuilder().setAddresses(addresses).build());
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    protected int priority() {
+        return 5;
+    }
+}
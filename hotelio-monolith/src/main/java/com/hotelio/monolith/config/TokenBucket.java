@@ -0,0 +1,37 @@
+package com.hotelio.monolith.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code burst} tokens refilled at {@code rate} per second, kept as a single timestamp (the
+ * generic cell rate algorithm): the time at which the bucket will be full again. Taking a token is one
+ * compare-and-set on that timestamp, so concurrent callers never block each other.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double ratePerSecond, long burst) {
+        this.intervalNanos = Math.max(1, (long) (1e9 / ratePerSecond));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long from = Math.max(current, nowNanos);
+            long wait = from - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, from + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hotelio.monolith.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Opt-in virtual-thread mode (spring.threads.virtual.enabled). Spring Boot itself moves Tomcat
+ * request handling, @Scheduled jobs and Kafka listener containers onto virtual threads; this
+ * config adds the pinning monitor and warns when the flag is set on a JVM that cannot honour it.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${virtual-threads.pinned-threshold:PT0.02S}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new PinnedThreadMonitor(threshold, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    @ConditionalOnJava(range = ConditionalOnJava.Range.OLDER_THAN, value = JavaVersion.TWENTY_ONE)
+    public ApplicationRunner virtualThreadsUnavailableWarning() {
+        return args -> log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                + "staying on platform thread pools", System.getProperty("java.specification.version"));
+    }
+}
@@ -5,17 +5,31 @@ import com.hotelio.monolith.service.AppUserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
 public class AppUserController {
 
+    private static final int MAX_IDS = 500;
+
     private final AppUserService userService;
 
     public AppUserController(AppUserService userService) {
         this.userService = userService;
     }
 
+    // GET /api/users?ids=u1,u2,u3 (found users keyed by id, one query; unknown ids are left out)
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<String, AppUser>> getUsersByIds(@RequestParam List<String> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getUsersByIds(new LinkedHashSet<>(ids)));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<AppUser> getUserById(@PathVariable String userId) {
         return userService.getUserById(userId)
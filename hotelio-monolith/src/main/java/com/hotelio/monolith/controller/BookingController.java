@@ -1,22 +1,43 @@
 package com.hotelio.monolith.controller;
 
-import com.hotelio.GrpcBookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotelio.monolith.entity.Booking;
+import com.hotelio.monolith.service.BookingPage;
+import com.hotelio.monolith.service.BookingRequestItem;
+import com.hotelio.monolith.service.BookingResult;
 import com.hotelio.monolith.service.BookingService;
+import com.hotelio.monolith.service.BookingTicket;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
-        //this.grpcBookingService = grpcBookingService;
+        this.objectMapper = objectMapper;
     }
 
     // GET /api/bookings?userId=123
@@ -28,13 +49,79 @@ public class BookingController {
         return bookingService.listAll(userId);
     }
 
+    // GET /api/bookings/page?userId=123&after=456&limit=50
+    @GetMapping("/page")
+    public BookingPage listBookingsPage(@RequestParam String userId,
+                                        @RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return bookingService.listPage(userId, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    // GET /api/bookings/stream?userId=123 (one JSON booking per line)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBookings(@RequestParam String userId) {
+        StreamingResponseBody body = out -> bookingService.streamAll(userId, booking -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(booking));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     // POST /api/bookings
+    // with "Prefer: respond-async": 202 and a PENDING ticket once validated, 503 when the writer's queue is full;
+    // an "Idempotency-Key" (UUID) becomes the ticket id, and submitting it again never books twice
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@RequestParam String userId,
-                                                 @RequestParam String hotelId,
-                                                 @RequestParam(required = false) String promoCode) {
-        Booking booking = bookingService.createBooking(userId, hotelId, promoCode);
-        //Booking booking = grpcBookingService.createBooking(userId, hotelId, promoCode);
+    public ResponseEntity<?> createBooking(@RequestParam String userId,
+                                           @RequestParam String hotelId,
+                                           @RequestParam(required = false) String promoCode,
+                                           @RequestParam(required = false) LocalDate checkIn,
+                                           @RequestParam(required = false) LocalDate checkOut,
+                                           @RequestHeader(value = "Prefer", required = false) String prefer,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (prefer != null && prefer.contains(RESPOND_ASYNC) && bookingService.acceptsAsync()) {
+            String ticketId = null;
+            if (idempotencyKey != null) {
+                try {
+                    ticketId = UUID.fromString(idempotencyKey.trim()).toString();
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+            BookingTicket ticket;
+            try {
+                ticket = bookingService.submitBooking(ticketId, userId, hotelId, promoCode, checkIn, checkOut);
+            } catch (RejectedExecutionException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/bookings/tickets/" + ticket.id()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(ticket);
+        }
+        Booking booking = bookingService.createBooking(userId, hotelId, promoCode, checkIn, checkOut);
         return ResponseEntity.ok(booking);
     }
+
+    // GET /api/bookings/tickets/{ticket}
+    // 404: not committed, but it may still be queued on another instance; only a resubmit with the
+    // ticket as Idempotency-Key is safe
+    @GetMapping("/tickets/{ticket}")
+    public ResponseEntity<BookingTicket> getTicket(@PathVariable String ticket) {
+        return ResponseEntity.of(bookingService.getTicket(ticket));
+    }
+
+    // POST /api/bookings/batch  [{"userId": "...", "hotelId": "...", "promoCode": "..."}, ...]
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingResult>> createBookings(@RequestBody List<BookingRequestItem> items) {
+        if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bookingService.createBookings(items));
+    }
 }
@@ -0,0 +1,50 @@
+package com.hotelio.monolith.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+
+// unauthenticated, so only mapped where cache-admin.enabled=true (e.g. on an instance not exposed to clients)
+@RestController
+@RequestMapping("/api/admin/caches")
+@ConditionalOnProperty(name = "cache-admin.enabled", havingValue = "true")
+public class CacheAdminController {
+
+    private final CacheManager cacheManager;
+
+    public CacheAdminController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // GET /api/admin/caches
+    @GetMapping
+    public Collection<String> listRegions() {
+        return cacheManager.getCacheNames();
+    }
+
+    // DELETE /api/admin/caches/{region}
+    @DeleteMapping("/{region}")
+    public ResponseEntity<Void> flushRegion(@PathVariable String region) {
+        Cache cache = cacheManager.getCache(region);
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cache.invalidate();
+        return ResponseEntity.noContent().build();
+    }
+
+    // DELETE /api/admin/caches/{region}/{key}
+    @DeleteMapping("/{region}/{key}")
+    public ResponseEntity<Void> flushKey(@PathVariable String region, @PathVariable String key) {
+        Cache cache = cacheManager.getCache(region);
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cache.evictIfPresent(key);
+        return ResponseEntity.noContent().build();
+    }
+}
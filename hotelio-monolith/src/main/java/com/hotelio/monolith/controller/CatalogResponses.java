@@ -0,0 +1,74 @@
+package com.hotelio.monolith.controller;
+
+import com.hotelio.monolith.config.ReadYourWrites;
+import com.hotelio.monolith.service.CatalogVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for catalog endpoints. The ETag comes from {@link CatalogVersions} and is known before
+ * anything is loaded, so a matching If-None-Match is answered 304 without a query or serialization.
+ */
+@Component
+public class CatalogResponses {
+
+    private final CatalogVersions versions;
+    private final ReadYourWrites readYourWrites;
+
+    public CatalogResponses(CatalogVersions versions, ReadYourWrites readYourWrites) {
+        this.versions = versions;
+        this.readYourWrites = readYourWrites;
+    }
+
+    // the stamp is taken before loading: a write committed meanwhile drops it, so a stale body never carries a live tag
+    public <T> ResponseEntity<T> get(String key, CacheControl cacheControl, WebRequest request,
+                                     Supplier<Optional<T>> loader) {
+        String etag = versions.etag(key);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag, cacheControl);
+        }
+        Optional<T> body = readYourWrites.read(key, loader);
+        if (body.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // "*" matches any current representation, so only once the resource is known to exist
+        if (isWildcard(ifNoneMatch)) {
+            return notModified(etag, cacheControl);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    // If-None-Match uses weak comparison: W/"x" and "x" both match
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (opaqueTag(candidate.trim()).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWildcard(String ifNoneMatch) {
+        return ifNoneMatch != null && ifNoneMatch.trim().equals("*");
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -1,27 +1,53 @@
 package com.hotelio.monolith.controller;
 
 import com.hotelio.monolith.entity.Hotel;
+import com.hotelio.monolith.service.CatalogVersions;
 import com.hotelio.monolith.service.HotelService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/hotels")
 public class HotelController {
 
+    private static final int MAX_IDS = 500;
+
     private final HotelService hotelService;
+    private final CatalogResponses catalogResponses;
+    private final CacheControl cacheControl;
 
-    public HotelController(HotelService hotelService) {
+    public HotelController(HotelService hotelService,
+                           CatalogResponses catalogResponses,
+                           @Value("${http-cache.hotels-max-age:PT60S}") Duration maxAge) {
         this.hotelService = hotelService;
+        this.catalogResponses = catalogResponses;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    // GET /api/hotels?ids=h1,h2,h3 (found hotels keyed by id, one query; unknown ids are left out)
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<String, Hotel>> getHotelsByIds(@RequestParam List<String> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(hotelService.getHotelsByIds(new LinkedHashSet<>(ids)));
     }
 
+    // GET /api/hotels/{id} (ETag; If-None-Match answered 304 without a query)
     @GetMapping("/{id}")
-    public ResponseEntity<Hotel> getHotelById(@PathVariable String id) {
-        return hotelService.getHotelById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Hotel> getHotelById(@PathVariable String id, WebRequest request) {
+        return catalogResponses.get(CatalogVersions.hotel(id), cacheControl, request,
+                () -> hotelService.getHotelById(id));
     }
 
     @GetMapping("/{id}/operational")
@@ -34,13 +60,33 @@ public class HotelController {
         return hotelService.isHotelFullyBooked(id);
     }
 
+    // GET /api/hotels/{id}/availability?from=2025-01-01&to=2025-01-05 (free rooms per night, to exclusive)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Map<LocalDate, Integer>> getAvailability(@PathVariable String id,
+                                                                   @RequestParam LocalDate from,
+                                                                   @RequestParam LocalDate to) {
+        if (!to.isAfter(from) || hotelService.getHotelById(id).isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(hotelService.getAvailability(id, from, to));
+    }
+
+    // GET /api/hotels/by-city?city=Seoul (ETag; If-None-Match answered 304 without a query)
     @GetMapping("/by-city")
-    public List<Hotel> findByCity(@RequestParam String city) {
-        return hotelService.findHotelsInCity(city);
+    public ResponseEntity<List<Hotel>> findByCity(@RequestParam String city, WebRequest request) {
+        return catalogResponses.get(CatalogVersions.hotelsInCity(city), cacheControl, request,
+                () -> Optional.of(hotelService.findHotelsInCity(city)));
     }
 
     @GetMapping("/top-rated")
     public List<Hotel> topRatedInCity(@RequestParam String city, @RequestParam(defaultValue = "5") int limit) {
         return hotelService.findTopRatedHotelsInCity(city, limit);
     }
+
+    @PutMapping("/{id}/rating")
+    public ResponseEntity<Hotel> updateRating(@PathVariable String id, @RequestParam double value) {
+        return hotelService.updateRating(id, value)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
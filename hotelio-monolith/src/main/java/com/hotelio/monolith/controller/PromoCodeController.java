@@ -1,26 +1,51 @@
 package com.hotelio.monolith.controller;
 
 import com.hotelio.monolith.entity.PromoCode;
+import com.hotelio.monolith.service.CatalogVersions;
 import com.hotelio.monolith.service.PromoCodeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/promos")
 public class PromoCodeController {
 
+    private static final int MAX_CODES = 500;
+
     private final PromoCodeService promoCodeService;
+    private final CatalogResponses catalogResponses;
+    private final CacheControl cacheControl;
 
-    public PromoCodeController(PromoCodeService promoCodeService) {
+    public PromoCodeController(PromoCodeService promoCodeService,
+                               CatalogResponses catalogResponses,
+                               @Value("${http-cache.promos-max-age:PT5M}") Duration maxAge) {
         this.promoCodeService = promoCodeService;
+        this.catalogResponses = catalogResponses;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    // GET /api/promos?codes=SUMMER10,VIP20 (found promo codes keyed by code, one query; unknown codes are left out)
+    @GetMapping(params = "codes")
+    public ResponseEntity<Map<String, PromoCode>> getPromosByCodes(@RequestParam List<String> codes) {
+        if (codes.isEmpty() || codes.size() > MAX_CODES) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(promoCodeService.findByCodes(new LinkedHashSet<>(codes)));
     }
 
-    // GET /api/promos/{code}
+    // GET /api/promos/{code} (ETag; If-None-Match answered 304 without a query)
     @GetMapping("/{code}")
-    public ResponseEntity<PromoCode> getPromoByCode(@PathVariable String code) {
-        return promoCodeService.findByCode(code)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<PromoCode> getPromoByCode(@PathVariable String code, WebRequest request) {
+        return catalogResponses.get(CatalogVersions.promo(code), cacheControl, request,
+                () -> promoCodeService.findByCode(code));
     }
 
     // GET /api/promos/{code}/valid?isVipUser=true
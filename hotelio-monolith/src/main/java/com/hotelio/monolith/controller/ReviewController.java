@@ -1,30 +1,49 @@
 package com.hotelio.monolith.controller;
 
 import com.hotelio.monolith.entity.Review;
-import com.hotelio.monolith.repository.ReviewRepository;
+import com.hotelio.monolith.service.CatalogVersions;
+import com.hotelio.monolith.service.ReviewRequest;
 import com.hotelio.monolith.service.ReviewService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/reviews")
 public class ReviewController {
 
     private final ReviewService reviewService;
-    private final ReviewRepository reviewRepository;
+    private final CatalogResponses catalogResponses;
+    private final CacheControl cacheControl;
 
     public ReviewController(ReviewService reviewService,
-                            ReviewRepository reviewRepository) {
+                            CatalogResponses catalogResponses,
+                            @Value("${http-cache.reviews-max-age:PT30S}") Duration maxAge) {
         this.reviewService = reviewService;
-        this.reviewRepository = reviewRepository;
+        this.catalogResponses = catalogResponses;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
-    // GET /api/reviews/hotel/{hotelId}
+    // GET /api/reviews/hotel/{hotelId} (ETag; If-None-Match answered 304 without a query)
     @GetMapping("/hotel/{hotelId}")
-    public List<Review> getReviewsForHotel(@PathVariable String hotelId) {
-        return reviewRepository.findByHotelId(hotelId);
+    public ResponseEntity<List<Review>> getReviewsForHotel(@PathVariable String hotelId, WebRequest request) {
+        return catalogResponses.get(CatalogVersions.reviews(hotelId), cacheControl, request,
+                () -> Optional.of(reviewService.getReviewsForHotel(hotelId)));
+    }
+
+    // POST /api/reviews  {"hotelId": "...", "userId": "...", "text": "...", "rating": 1..5}
+    @PostMapping
+    public ResponseEntity<Review> addReview(@RequestBody ReviewRequest review) {
+        if (!review.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(reviewService.addReview(review));
     }
 
     // GET /api/reviews/hotel/{hotelId}/trusted
@@ -3,12 +3,16 @@ package com.hotelio.monolith.entity;
 import jakarta.persistence.*;
 
 import java.time.Instant;
+import java.time.LocalDate;
 
 @Entity
 public class Booking {
 
+    // pooled-lo blocks of 50 let Hibernate batch inserts; the column default keeps plain SQL inserts working
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
+    @Column(columnDefinition = "bigint default nextval('booking_seq')")
     private Long id;
 
     private String userId;
@@ -22,6 +26,13 @@ public class Booking {
 
     private Instant createdAt;
 
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    // set for bookings submitted asynchronously, see BookingWriter
+    @Column(length = 36, unique = true)
+    private String ticket;
+
     public Long getId() {
         return id;
     }
@@ -77,5 +88,28 @@ public class Booking {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+}
@@ -14,6 +14,9 @@ public class Hotel {
     private String city;
     private double rating;
 
+    // null means inventory.default-room-count
+    private Integer roomCount;
+
     @Column(length = 1000)
     private String description;
 
@@ -53,6 +56,14 @@ public class Hotel {
         this.rating = rating;
     }
 
+    public Integer getRoomCount() {
+        return roomCount;
+    }
+
+    public void setRoomCount(Integer roomCount) {
+        this.roomCount = roomCount;
+    }
+
     public String getDescription() {
         return description;
     }
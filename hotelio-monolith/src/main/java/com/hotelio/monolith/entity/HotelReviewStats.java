@@ -0,0 +1,62 @@
+package com.hotelio.monolith.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "hotel_review_stats")
+public class HotelReviewStats {
+
+    @Id
+    private String hotelId;
+
+    private long reviewCount;
+    private long ratingSum;
+
+    private Instant updatedAt;
+
+    public HotelReviewStats() {}
+
+    public HotelReviewStats(String hotelId, long reviewCount, long ratingSum) {
+        this.hotelId = hotelId;
+        this.reviewCount = reviewCount;
+        this.ratingSum = ratingSum;
+        this.updatedAt = Instant.now();
+    }
+
+    public double getAvgRating() {
+        return reviewCount == 0 ? 0 : (double) ratingSum / reviewCount;
+    }
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(String hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
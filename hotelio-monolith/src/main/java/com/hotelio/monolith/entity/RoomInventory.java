@@ -0,0 +1,75 @@
+package com.hotelio.monolith.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One stripe of a hotel's room allotment for a single night. A night is split across several
+ * stripes so that concurrent reservations for the same hotel mostly lock different rows.
+ */
+@Entity
+@Table(name = "room_inventory")
+@IdClass(RoomInventory.Key.class)
+public class RoomInventory {
+
+    @Id
+    private String hotelId;
+
+    @Id
+    private LocalDate night;
+
+    @Id
+    private int stripe;
+
+    private int capacity;
+    private int reserved;
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public static class Key implements Serializable {
+        private String hotelId;
+        private LocalDate night;
+        private int stripe;
+
+        public Key() {}
+
+        public Key(String hotelId, LocalDate night, int stripe) {
+            this.hotelId = hotelId;
+            this.night = night;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return stripe == key.stripe && Objects.equals(hotelId, key.hotelId) && Objects.equals(night, key.night);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hotelId, night, stripe);
+        }
+    }
+}
@@ -1,7 +1,50 @@
 package com.hotelio.monolith.repository;
 
+import com.hotelio.monolith.config.CacheConfig;
 import com.hotelio.monolith.entity.AppUser;
+import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Transactional(readOnly = true)
 public interface AppUserRepository extends JpaRepository<AppUser, String> {
+
+    @Override
+    @Cacheable(CacheConfig.USERS)
+    Optional<AppUser> findById(String id);
+
+    @Cacheable(CacheConfig.USER_FLAGS)
+    @Query("select new com.hotelio.monolith.repository.UserEligibility(u.id, u.status, u.active, u.blacklisted) " +
+            "from AppUser u where u.id = :id")
+    Optional<UserEligibility> findEligibilityById(@Param("id") String id);
+
+    @Query("select new com.hotelio.monolith.repository.UserEligibility(u.id, u.status, u.active, u.blacklisted) " +
+            "from AppUser u where u.id in :ids")
+    List<UserEligibility> findEligibilityByIdIn(@Param("ids") Collection<String> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.USERS, CacheConfig.USER_FLAGS}, key = "#p0.id")
+    @Transactional
+    <S extends AppUser> S save(S user);
+
+    @Override
+    @CacheEvict({CacheConfig.USERS, CacheConfig.USER_FLAGS})
+    @Transactional
+    void deleteById(String id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select u.id from AppUser u")
+    Stream<String> streamAllIds();
 }
@@ -1,11 +1,29 @@
 package com.hotelio.monolith.repository;
 
 import com.hotelio.monolith.entity.Booking;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Transactional(readOnly = true)
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserId(String userId);
     List<Booking> findAll();
+
+    List<Booking> findByUserIdAndIdGreaterThanOrderByIdAsc(String userId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Booking> streamByUserIdOrderByIdAsc(String userId);
+
+    // read-write, so it runs on the primary: a lagging replica would report a committed ticket as unknown
+    @Transactional
+    Optional<Booking> findByTicket(String ticket);
 }
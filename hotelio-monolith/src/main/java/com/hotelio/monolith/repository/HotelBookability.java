@@ -0,0 +1,7 @@
+package com.hotelio.monolith.repository;
+
+/**
+ * The hotel columns booking validation reads, selected without hydrating the entity (and its description).
+ */
+public record HotelBookability(String id, boolean operational, boolean fullyBooked, String city) {
+}
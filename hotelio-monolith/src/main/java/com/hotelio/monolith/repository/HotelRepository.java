@@ -1,13 +1,58 @@
 package com.hotelio.monolith.repository;
 
+import com.hotelio.monolith.config.CacheConfig;
 import com.hotelio.monolith.entity.Hotel;
+import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Transactional(readOnly = true)
 public interface HotelRepository extends JpaRepository<Hotel, String> {
     List<Hotel> findByCity(String city);
 
-    List<Hotel> findByCityOrderByRatingDesc(String city);
+    List<Hotel> findByCityOrderByRatingDesc(String city, Limit limit);
+
+    @Override
+    @Cacheable(CacheConfig.HOTELS)
+    Optional<Hotel> findById(String id);
+
+    // bypasses the near cache: the entity is this transaction's own copy and safe to modify
+    @Query("select h from Hotel h where h.id = :id")
+    Optional<Hotel> findForUpdateById(@Param("id") String id);
+
+    @Cacheable(CacheConfig.HOTEL_FLAGS)
+    @Query("select new com.hotelio.monolith.repository.HotelBookability(h.id, h.operational, h.fullyBooked, h.city) " +
+            "from Hotel h where h.id = :id")
+    Optional<HotelBookability> findBookabilityById(@Param("id") String id);
+
+    @Query("select new com.hotelio.monolith.repository.HotelBookability(h.id, h.operational, h.fullyBooked, h.city) " +
+            "from Hotel h where h.id in :ids")
+    List<HotelBookability> findBookabilityByIdIn(@Param("ids") Collection<String> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.HOTELS, CacheConfig.HOTEL_FLAGS}, key = "#p0.id")
+    @Transactional
+    <S extends Hotel> S save(S hotel);
+
+    @Override
+    @CacheEvict({CacheConfig.HOTELS, CacheConfig.HOTEL_FLAGS})
+    @Transactional
+    void deleteById(String id);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select h.id from Hotel h")
+    Stream<String> streamAllIds();
 }
@@ -0,0 +1,47 @@
+package com.hotelio.monolith.repository;
+
+import com.hotelio.monolith.entity.HotelReviewStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface HotelReviewStatsRepository extends JpaRepository<HotelReviewStats, String> {
+
+    // adds a review just inserted in this transaction; a missing row starts from the hotel's reviews (this one
+    // included), and concurrent first reviews meet in the conflict clause instead of a unique violation
+    @Modifying
+    @Query(value = "insert into hotel_review_stats (hotel_id, review_count, rating_sum, updated_at) " +
+            "select :hotelId, count(*), coalesce(sum(rating), 0), now() from review where hotel_id = :hotelId " +
+            "on conflict (hotel_id) do update set review_count = hotel_review_stats.review_count + 1, " +
+            "rating_sum = hotel_review_stats.rating_sum + :rating, updated_at = now()", nativeQuery = true)
+    void recordReview(@Param("hotelId") String hotelId, @Param("rating") int rating);
+
+    // only fills in hotels without a row: counts from this statement's snapshot must not overwrite a row
+    // that an increment committed since
+    @Modifying
+    @Query(value = "insert into hotel_review_stats (hotel_id, review_count, rating_sum, updated_at) " +
+            "select hotel_id, count(*), coalesce(sum(rating), 0), now() from review " +
+            "where hotel_id is not null group by hotel_id " +
+            "on conflict (hotel_id) do nothing", nativeQuery = true)
+    int insertMissingFromReviews();
+
+    @Query(value = "select hotel_id from hotel_review_stats where hotel_id > :after order by hotel_id " +
+            "limit :limit for update", nativeQuery = true)
+    List<String> lockAfter(@Param("after") String after, @Param("limit") int limit);
+
+    // run after lockAfter in the same transaction: this statement's snapshot is taken once the rows are
+    // locked, so it sees every increment committed before and no later one can interleave
+    @Modifying
+    @Query(value = "update hotel_review_stats s set review_count = r.review_count, rating_sum = r.rating_sum, " +
+            "updated_at = now() " +
+            "from (select s2.hotel_id, count(v.hotel_id) as review_count, coalesce(sum(v.rating), 0) as rating_sum " +
+            "from hotel_review_stats s2 left join review v on v.hotel_id = s2.hotel_id " +
+            "where s2.hotel_id in :hotelIds group by s2.hotel_id) r " +
+            "where s.hotel_id = r.hotel_id " +
+            "and (s.review_count, s.rating_sum) is distinct from (r.review_count, r.rating_sum)", nativeQuery = true)
+    int reconcile(@Param("hotelIds") Collection<String> hotelIds);
+}
@@ -1,7 +1,38 @@
 package com.hotelio.monolith.repository;
 
+import com.hotelio.monolith.config.CacheConfig;
 import com.hotelio.monolith.entity.PromoCode;
+import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Transactional(readOnly = true)
 public interface PromoCodeRepository extends JpaRepository<PromoCode, String> {
+
+    @Override
+    @Cacheable(CacheConfig.PROMOS)
+    Optional<PromoCode> findById(String code);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PROMOS, key = "#p0.code")
+    @Transactional
+    <S extends PromoCode> S save(S promoCode);
+
+    @Override
+    @CacheEvict(CacheConfig.PROMOS)
+    @Transactional
+    void deleteById(String code);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select p.code from PromoCode p")
+    Stream<String> streamAllCodes();
 }
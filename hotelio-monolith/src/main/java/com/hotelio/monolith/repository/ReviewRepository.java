@@ -2,10 +2,19 @@ package com.hotelio.monolith.repository;
 
 import com.hotelio.monolith.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface ReviewRepository extends JpaRepository<Review, String> {
     List<Review> findByHotelId(String hotelId);
     int countByHotelId(String hotelId);
+
+    @Query("select r.hotelId as hotelId, count(r) as reviewCount, coalesce(sum(r.rating), 0) as ratingSum " +
+            "from Review r where r.hotelId = :hotelId group by r.hotelId")
+    Optional<ReviewTotals> sumRatingsForHotel(@Param("hotelId") String hotelId);
 }
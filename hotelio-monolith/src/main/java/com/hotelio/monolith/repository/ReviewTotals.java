@@ -0,0 +1,9 @@
+package com.hotelio.monolith.repository;
+
+public interface ReviewTotals {
+    String getHotelId();
+
+    long getReviewCount();
+
+    long getRatingSum();
+}
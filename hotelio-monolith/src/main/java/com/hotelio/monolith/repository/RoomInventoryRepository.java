@@ -0,0 +1,33 @@
+package com.hotelio.monolith.repository;
+
+import com.hotelio.monolith.entity.RoomInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomInventoryRepository extends JpaRepository<RoomInventory, RoomInventory.Key> {
+
+    List<RoomInventory> findByHotelIdAndNightBetween(String hotelId, LocalDate from, LocalDate to);
+
+    boolean existsByHotelIdAndNight(String hotelId, LocalDate night);
+
+    @Modifying
+    @Query("update RoomInventory r set r.reserved = r.reserved + 1 " +
+            "where r.hotelId = :hotelId and r.night = :night and r.stripe = :stripe and r.reserved < r.capacity")
+    int reserveOne(@Param("hotelId") String hotelId, @Param("night") LocalDate night, @Param("stripe") int stripe);
+
+    @Modifying
+    @Query("update RoomInventory r set r.reserved = r.reserved - 1 " +
+            "where r.hotelId = :hotelId and r.night = :night and r.stripe = :stripe and r.reserved > 0")
+    int releaseOne(@Param("hotelId") String hotelId, @Param("night") LocalDate night, @Param("stripe") int stripe);
+
+    @Modifying
+    @Query(value = "insert into room_inventory (hotel_id, night, stripe, capacity, reserved) " +
+            "values (:hotelId, :night, :stripe, :capacity, 0) on conflict do nothing", nativeQuery = true)
+    int initStripe(@Param("hotelId") String hotelId, @Param("night") LocalDate night,
+                   @Param("stripe") int stripe, @Param("capacity") int capacity);
+}
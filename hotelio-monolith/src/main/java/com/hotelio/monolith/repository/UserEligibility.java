@@ -0,0 +1,11 @@
+package com.hotelio.monolith.repository;
+
+/**
+ * The user columns booking validation and pricing read, selected without name/email/city.
+ */
+public record UserEligibility(String id, String status, boolean active, boolean blacklisted) {
+
+    public boolean isVip() {
+        return "VIP".equalsIgnoreCase(status);
+    }
+}
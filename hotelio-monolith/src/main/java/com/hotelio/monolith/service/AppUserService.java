@@ -2,49 +2,76 @@ package com.hotelio.monolith.service;
 
 import com.hotelio.monolith.entity.AppUser;
 import com.hotelio.monolith.repository.AppUserRepository;
+import com.hotelio.monolith.repository.UserEligibility;
+import com.hotelio.monolith.service.KnownIds.Kind;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class AppUserService {
 
     private final AppUserRepository repository;
+    private final KnownIds knownIds;
+    private final SingleFlight singleFlight;
 
-    public AppUserService(AppUserRepository repository) {
+    public AppUserService(AppUserRepository repository, KnownIds knownIds, SingleFlight singleFlight) {
         this.repository = repository;
+        this.knownIds = knownIds;
+        this.singleFlight = singleFlight;
     }
 
     public boolean isUserBlacklisted(String userId) {
-        return repository.findById(userId)
-                .map(AppUser::isBlacklisted)
+        return getEligibility(userId)
+                .map(UserEligibility::blacklisted)
                 .orElse(false);
     }
 
     public boolean isUserActive(String userId) {
-        return repository.findById(userId)
-                .map(AppUser::isActive)
+        return getEligibility(userId)
+                .map(UserEligibility::active)
                 .orElse(false);
     }
 
     public Optional<String> getUserStatus(String userId) {
-        return repository.findById(userId)
-                .map(AppUser::getStatus);
+        return getEligibility(userId)
+                .map(UserEligibility::status);
+    }
+
+    // ids the Bloom filter rules out are answered without a query; concurrent lookups of the same user share one
+    public Optional<UserEligibility> getEligibility(String userId) {
+        return knownIds.lookup(Kind.USER, userId,
+                () -> singleFlight.execute("userFlags", userId, () -> repository.findEligibilityById(userId)));
+    }
+
+    public Map<String, UserEligibility> getEligibilityByIds(Collection<String> userIds) {
+        return repository.findEligibilityByIdIn(knownIds.retainPossible(Kind.USER, userIds)).stream()
+                .collect(Collectors.toMap(UserEligibility::id, Function.identity()));
     }
 
     public Optional<AppUser> getUserById(String userId) {
-        return repository.findById(userId);
+        return knownIds.lookup(Kind.USER, userId,
+                () -> singleFlight.execute("user", userId, () -> repository.findById(userId)));
+    }
+
+    public Map<String, AppUser> getUsersByIds(Collection<String> userIds) {
+        return repository.findAllById(knownIds.retainPossible(Kind.USER, userIds)).stream()
+                .collect(Collectors.toMap(AppUser::getId, Function.identity()));
     }
 
     public boolean isVipUser(String userId) {
-        return repository.findById(userId)
-                .map(user -> "VIP".equalsIgnoreCase(user.getStatus()))
+        return getEligibility(userId)
+                .map(UserEligibility::isVip)
                 .orElse(false);
     }
 
     public boolean isAuthorized(String userId) {
-        return repository.findById(userId)
-                .map(user -> user.isActive() && !user.isBlacklisted())
+        return getEligibility(userId)
+                .map(user -> user.active() && !user.blacklisted())
                 .orElse(false);
     }
 }
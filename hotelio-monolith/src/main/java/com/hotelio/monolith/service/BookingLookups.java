@@ -0,0 +1,108 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.PromoCode;
+import com.hotelio.monolith.repository.HotelBookability;
+import com.hotelio.monolith.repository.UserEligibility;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Memoized reference-data lookups for booking validation. Users and hotels are read as flag
+ * projections rather than entities. One instance backs a single
+ * createBooking call, or is shared by every item of a batch after {@link #preload}.
+ * Not thread-safe.
+ */
+public class BookingLookups {
+
+    private final AppUserService userService;
+    private final HotelService hotelService;
+    private final ReviewService reviewService;
+    private final PromoCodeService promoCodeService;
+
+    private final Map<String, Optional<UserEligibility>> users = new HashMap<>();
+    private final Map<String, Optional<HotelBookability>> hotels = new HashMap<>();
+    private final Map<String, Optional<ReviewAggregate>> reviews = new HashMap<>();
+    private final Map<String, Optional<PromoCode>> promos = new HashMap<>();
+    private boolean preloaded;
+
+    public BookingLookups(AppUserService userService,
+                          HotelService hotelService,
+                          ReviewService reviewService,
+                          PromoCodeService promoCodeService) {
+        this.userService = userService;
+        this.hotelService = hotelService;
+        this.reviewService = reviewService;
+        this.promoCodeService = promoCodeService;
+    }
+
+    public void preload(Collection<String> userIds, Collection<String> hotelIds, Collection<String> promoCodes) {
+        Map<String, UserEligibility> foundUsers = userService.getEligibilityByIds(userIds);
+        userIds.forEach(id -> users.put(id, Optional.ofNullable(foundUsers.get(id))));
+
+        Map<String, HotelBookability> foundHotels = hotelService.getBookabilityByIds(hotelIds);
+        hotelIds.forEach(id -> hotels.put(id, Optional.ofNullable(foundHotels.get(id))));
+
+        Map<String, ReviewAggregate> foundReviews = reviewService.getAggregatesForHotels(hotelIds);
+        hotelIds.forEach(id -> reviews.put(id, Optional.ofNullable(foundReviews.get(id))));
+
+        Map<String, PromoCode> foundPromos = promoCodeService.findByCodes(promoCodes);
+        promoCodes.forEach(code -> promos.put(code, Optional.ofNullable(foundPromos.get(code))));
+        preloaded = true;
+    }
+
+    public boolean isPreloaded() {
+        return preloaded;
+    }
+
+    /*
+     * load* run the query on the calling thread (safe from worker threads) and return a step
+     * that stores the row in this instance; the step must run on the owning thread.
+     */
+
+    public Runnable loadUser(String userId) {
+        Optional<UserEligibility> user = userService.getEligibility(userId);
+        return () -> users.put(userId, user);
+    }
+
+    public Runnable loadHotel(String hotelId) {
+        Optional<HotelBookability> hotel = hotelService.getBookability(hotelId);
+        return () -> hotels.put(hotelId, hotel);
+    }
+
+    public Runnable loadReviews(String hotelId) {
+        Optional<ReviewAggregate> aggregate = reviewService.getAggregateForHotel(hotelId);
+        return () -> reviews.put(hotelId, aggregate);
+    }
+
+    public Runnable loadPromo(String code) {
+        Optional<PromoCode> promo = promoCodeService.findByCode(code);
+        return () -> promos.put(code, promo);
+    }
+
+    public Optional<UserEligibility> user(String userId) {
+        return users.computeIfAbsent(userId, userService::getEligibility);
+    }
+
+    public Optional<HotelBookability> hotel(String hotelId) {
+        return hotels.computeIfAbsent(hotelId, hotelService::getBookability);
+    }
+
+    public Optional<ReviewAggregate> reviews(String hotelId) {
+        return reviews.computeIfAbsent(hotelId, reviewService::getAggregateForHotel);
+    }
+
+    public Optional<PromoCode> promo(String code) {
+        return promos.computeIfAbsent(code, promoCodeService::findByCode);
+    }
+
+    public ReviewService getReviewService() {
+        return reviewService;
+    }
+
+    public PromoCodeService getPromoCodeService() {
+        return promoCodeService;
+    }
+}
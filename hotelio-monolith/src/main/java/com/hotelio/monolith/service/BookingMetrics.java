@@ -0,0 +1,64 @@
+package com.hotelio.monolith.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage timers (booking.create.stage{stage=...}) and outcome counters (booking.create{outcome=...})
+ * for the booking pipeline, so a slow booking can be attributed to the step that caused it.
+ */
+@Component
+public class BookingMetrics {
+
+    public enum Stage {
+        USER,
+        HOTEL,
+        REVIEWS,
+        PROMO,
+        INVENTORY,
+        SAVE
+    }
+
+    public enum Outcome {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("booking.create.stage")
+                    .description("Time spent in one stage of booking creation")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("booking.create")
+                    .description("Bookings by outcome: created, rejected by a business rule, or failed")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(Stage stage, Runnable step) {
+        stageTimers.get(stage).record(step);
+    }
+
+    public <T> T record(Stage stage, Supplier<T> step) {
+        return stageTimers.get(stage).record(step);
+    }
+
+    public void count(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+}
@@ -0,0 +1,12 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.Booking;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated booking listing. {@code nextCursor} is the id to pass as
+ * {@code after} for the following page, or null when this is the last page.
+ */
+public record BookingPage(List<Booking> items, Long nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.hotelio.monolith.service;
+
+import java.time.LocalDate;
+
+public record BookingRequestItem(String userId, String hotelId, String promoCode,
+                                 LocalDate checkIn, LocalDate checkOut) {
+}
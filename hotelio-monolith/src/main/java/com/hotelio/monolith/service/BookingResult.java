@@ -0,0 +1,29 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.Booking;
+
+/**
+ * Outcome of one item of a batch booking request. {@code index} is the position of the item
+ * in the request; {@code booking} is set for CREATED, {@code error} otherwise.
+ */
+public record BookingResult(int index, Status status, Booking booking, String error) {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    public static BookingResult created(int index, Booking booking) {
+        return new BookingResult(index, Status.CREATED, booking, null);
+    }
+
+    public static BookingResult rejected(int index, String error) {
+        return new BookingResult(index, Status.REJECTED, null, error);
+    }
+
+    // the cause is logged, not returned: it carries SQL and constraint details
+    public static BookingResult failed(int index) {
+        return new BookingResult(index, Status.FAILED, null, "Booking could not be saved, try again later");
+    }
+}
@@ -1,18 +1,40 @@
 package com.hotelio.monolith.service;
 
+import com.hotelio.monolith.config.QueryCounter;
+import com.hotelio.monolith.config.ReadYourWrites;
 import com.hotelio.monolith.entity.Booking;
 import com.hotelio.monolith.entity.PromoCode;
 import com.hotelio.monolith.repository.BookingRepository;
+import com.hotelio.monolith.service.BookingMetrics.Outcome;
+import com.hotelio.monolith.service.BookingMetrics.Stage;
 import com.hotelio.proto.booking.BookingRequest;
 import com.hotelio.proto.booking.BookingResponse;
 import com.hotelio.proto.booking.BookingServiceGrpc;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
@@ -23,75 +45,311 @@ public class BookingService {
     private final ReviewService reviewService;
     private final AppUserService userService;
     private final HotelService hotelService;
+    private final InventoryService inventoryService;
+    private final BookingValidator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final QueryCounter queryCounter;
+    private final DistributionSummary queriesPerBooking;
+    private final BookingMetrics metrics;
+    private final ReadYourWrites readYourWrites;
+    private final BookingWriter bookingWriter;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Kept for GrpcBookingService (libs/p-o-y), which subclasses this service via super(...)
     public BookingService(
             BookingRepository bookingRepository,
             PromoCodeService promoCodeService,
             ReviewService reviewService,
             AppUserService userService,
             HotelService hotelService
+    ) {
+        this(bookingRepository, promoCodeService, reviewService, userService, hotelService,
+                null, null, null, new QueryCounter(), Metrics.globalRegistry, new BookingMetrics(Metrics.globalRegistry),
+                ReadYourWrites.disabled(), null);
+    }
+
+    @Autowired
+    public BookingService(
+            BookingRepository bookingRepository,
+            PromoCodeService promoCodeService,
+            ReviewService reviewService,
+            AppUserService userService,
+            HotelService hotelService,
+            InventoryService inventoryService,
+            BookingValidator validator,
+            TransactionTemplate transactionTemplate,
+            QueryCounter queryCounter,
+            MeterRegistry meterRegistry,
+            BookingMetrics metrics,
+            ReadYourWrites readYourWrites,
+            BookingWriter bookingWriter
     ) {
         this.bookingRepository = bookingRepository;
         this.promoCodeService = promoCodeService;
         this.reviewService = reviewService;
         this.userService = userService;
         this.hotelService = hotelService;
+        this.inventoryService = inventoryService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.queryCounter = queryCounter;
+        this.queriesPerBooking = DistributionSummary.builder("booking.create.queries")
+                .description("SQL statements issued by a single createBooking call")
+                .register(meterRegistry);
+        this.metrics = metrics;
+        this.readYourWrites = readYourWrites;
+        this.bookingWriter = bookingWriter;
     }
 
+    // a user's own listings read from the primary right after they booked, see ReadYourWrites
     public List<Booking> listAll(String userId) {
-        return userId != null ? bookingRepository.findByUserId(userId) : bookingRepository.findAll();
+        return readYourWrites.read(userKey(userId), () ->
+                userId != null ? bookingRepository.findByUserId(userId) : bookingRepository.findAll());
     }
 
-    public Booking createBooking(String userId, String hotelId, String promoCode) {
-        log.info("Creating booking in monolith: userId={}, hotelId={}, promoCode={}", userId, hotelId, promoCode);
+    // page and stream are always scoped to one user: unscoped they would walk the whole booking table
+    public BookingPage listPage(String userId, Long after, int limit) {
+        long cursor = after != null ? after : 0L;
+        List<Booking> items;
+        if (bookingRepository == null) {
+            // GrpcBookingService has no local repository: page over its remote listing
+            items = listAll(userId).stream()
+                    .filter(b -> b.getId() != null && b.getId() > cursor)
+                    .sorted(Comparator.comparing(Booking::getId))
+                    .limit(limit)
+                    .toList();
+        } else {
+            items = readYourWrites.read(userKey(userId), () ->
+                    bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursor, Limit.of(limit)));
+        }
+        Long nextCursor = items.size() < limit ? null : items.get(items.size() - 1).getId();
+        return new BookingPage(items, nextCursor);
+    }
 
-        validateUser(userId);
-        validateHotel(hotelId);
+    @Transactional(readOnly = true)
+    public void streamAll(String userId, Consumer<Booking> consumer) {
+        if (bookingRepository == null) {
+            listAll(userId).forEach(consumer);
+            return;
+        }
+        readYourWrites.read(userKey(userId), () -> {
+            try (Stream<Booking> bookings = bookingRepository.streamByUserIdOrderByIdAsc(userId)) {
+                bookings.forEach(booking -> {
+                    consumer.accept(booking);
+                    entityManager.detach(booking);
+                });
+            }
+        });
+    }
 
-        double basePrice = resolveBasePrice(userId);
-        double discount = resolvePromoDiscount(promoCode, userId);
+    public Booking createBooking(String userId, String hotelId, String promoCode) {
+        return createBooking(userId, hotelId, promoCode, null, null);
+    }
 
-        double finalPrice = basePrice - discount;
-        log.info("Final price calculated: base={}, discount={}, final={}", basePrice, discount, finalPrice);
+    public Booking createBooking(String userId, String hotelId, String promoCode,
+                                 LocalDate checkIn, LocalDate checkOut) {
+        if (bookingRepository == null) {
+            // GrpcBookingService has no local repository or inventory: stay dates are not forwarded
+            return createBooking(userId, hotelId, promoCode);
+        }
+        log.info("Creating booking in monolith: userId={}, hotelId={}, promoCode={}, checkIn={}, checkOut={}",
+                userId, hotelId, promoCode, checkIn, checkOut);
 
-        Booking booking = new Booking();
-        booking.setUserId(userId);
-        booking.setHotelId(hotelId);
-        booking.setPromoCode(promoCode);
-        booking.setDiscountPercent(discount);
-        booking.setPrice(finalPrice);
+        long queriesBefore = queryCounter.current();
+        try {
+            BookingValidationContext context = new BookingValidationContext(
+                    userId, hotelId, promoCode, newLookups());
+            Booking booking = prepareBooking(context, checkIn, checkOut);
+            Booking saved = transactionTemplate.execute(status -> {
+                if (!reserveRooms(booking)) {
+                    throw new IllegalArgumentException("No rooms available for the requested dates");
+                }
+                return metrics.record(Stage.SAVE, () -> bookingRepository.save(booking));
+            });
+            readYourWrites.recordWrite(userKey(userId));
+            metrics.count(Outcome.CREATED);
+            return saved;
+        } catch (IllegalArgumentException e) {
+            metrics.count(Outcome.REJECTED);
+            throw e;
+        } catch (RuntimeException e) {
+            metrics.count(Outcome.FAILED);
+            throw e;
+        } finally {
+            queriesPerBooking.record(queryCounter.current() - queriesBefore);
+        }
+    }
 
-        return bookingRepository.save(booking);
+    public boolean acceptsAsync() {
+        return bookingWriter != null && bookingWriter.isAccepting();
     }
 
-    private void validateUser(String userId) {
-        if (!userService.isUserActive(userId)) {
-            log.warn("User {} is inactive", userId);
-            throw new IllegalArgumentException("User is inactive");
+    /**
+     * Validates and prices the booking like {@link #createBooking}, then hands it to the group-commit writer
+     * and returns a PENDING ticket; rooms are reserved when the writer commits it. A {@code ticket} that is
+     * already known (the client's idempotency key, submitted before) returns its state without validating
+     * or queueing again.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the writer's queue is full
+     */
+    public BookingTicket submitBooking(String ticket, String userId, String hotelId, String promoCode,
+                                       LocalDate checkIn, LocalDate checkOut) {
+        log.info("Submitting booking in monolith: userId={}, hotelId={}, promoCode={}, checkIn={}, checkOut={}",
+                userId, hotelId, promoCode, checkIn, checkOut);
+        if (ticket != null) {
+            Optional<BookingTicket> known = bookingWriter.ticket(ticket);
+            if (known.isPresent()) {
+                return known.get();
+            }
         }
-        if (userService.isUserBlacklisted(userId)) {
-            log.warn("User {} is blacklisted", userId);
-            throw new IllegalArgumentException("User is blacklisted");
+        Booking booking;
+        try {
+            booking = prepareBooking(new BookingValidationContext(userId, hotelId, promoCode, newLookups()),
+                    checkIn, checkOut);
+        } catch (IllegalArgumentException e) {
+            metrics.count(Outcome.REJECTED);
+            throw e;
         }
+        return bookingWriter.submit(booking, ticket);
+    }
+
+    public Optional<BookingTicket> getTicket(String ticket) {
+        return bookingWriter != null ? bookingWriter.ticket(ticket) : Optional.empty();
     }
 
-    private void validateHotel(String hotelId) {
-        if (!hotelService.isHotelOperational(hotelId)) {
-            log.warn("Hotel {} is not operational", hotelId);
-            throw new IllegalArgumentException("Hotel is not operational");
+    public List<BookingResult> createBookings(List<BookingRequestItem> items) {
+        log.info("Creating batch of {} bookings in monolith", items.size());
+        BookingResult[] results = new BookingResult[items.size()];
+
+        if (bookingRepository == null) {
+            // GrpcBookingService has no local repository: create remotely one by one
+            for (int i = 0; i < items.size(); i++) {
+                BookingRequestItem item = items.get(i);
+                try {
+                    results[i] = BookingResult.created(i, createBooking(item.userId(), item.hotelId(), item.promoCode()));
+                } catch (IllegalArgumentException e) {
+                    results[i] = BookingResult.rejected(i, e.getMessage());
+                } catch (RuntimeException e) {
+                    log.error("Failed to create booking {} of batch remotely", i, e);
+                    results[i] = BookingResult.failed(i);
+                }
+            }
+            return List.of(results);
+        }
+
+        BookingLookups lookups = newLookups();
+        lookups.preload(
+                items.stream().map(BookingRequestItem::userId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                items.stream().map(BookingRequestItem::hotelId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                items.stream().map(BookingRequestItem::promoCode).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BookingRequestItem item = items.get(i);
+            if (item.userId() == null || item.hotelId() == null) {
+                results[i] = BookingResult.rejected(i, "userId and hotelId are required");
+                continue;
+            }
+            try {
+                accepted.add(prepareBooking(new BookingValidationContext(
+                        item.userId(), item.hotelId(), item.promoCode(), lookups), item.checkIn(), item.checkOut()));
+                acceptedIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BookingResult.rejected(i, e.getMessage());
+            }
         }
-        if (!reviewService.isTrustedHotel(hotelId)) {
-            log.warn("Hotel {} is not trusted", hotelId);
-            throw new IllegalArgumentException("Hotel is not trusted based on reviews");
+
+        // (hotel, stay) order, so batches lock inventory rows in the same order as each other and as BookingWriter
+        List<Integer> lockOrder = new ArrayList<>();
+        for (int j = 0; j < accepted.size(); j++) {
+            lockOrder.add(j);
+        }
+        lockOrder.sort(Comparator.comparing((Integer j) -> accepted.get(j).getHotelId())
+                .thenComparing(j -> accepted.get(j).getCheckIn()));
+
+        List<Integer> reservedIndexes = new ArrayList<>();
+        try {
+            List<Booking> saved = transactionTemplate.execute(status -> {
+                List<Booking> reserved = new ArrayList<>();
+                for (int j : lockOrder) {
+                    int index = acceptedIndexes.get(j);
+                    if (reserveRooms(accepted.get(j))) {
+                        reserved.add(accepted.get(j));
+                        reservedIndexes.add(index);
+                    } else {
+                        results[index] = BookingResult.rejected(index, "No rooms available for the requested dates");
+                    }
+                }
+                return metrics.record(Stage.SAVE, () -> bookingRepository.saveAll(reserved));
+            });
+            for (int j = 0; j < saved.size(); j++) {
+                results[reservedIndexes.get(j)] = BookingResult.created(reservedIndexes.get(j), saved.get(j));
+                readYourWrites.recordWrite(userKey(saved.get(j).getUserId()));
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Failed to save batch of {} bookings", accepted.size(), e);
+            reservedIndexes.forEach(i -> results[i] = BookingResult.failed(i));
+        }
+        for (BookingResult result : results) {
+            metrics.count(switch (result.status()) {
+                case CREATED -> Outcome.CREATED;
+                case REJECTED -> Outcome.REJECTED;
+                case FAILED -> Outcome.FAILED;
+            });
+        }
+        return List.of(results);
+    }
+
+    static String userKey(String userId) {
+        return userId != null ? "user:" + userId : null;
+    }
+
+    private BookingLookups newLookups() {
+        return new BookingLookups(userService, hotelService, reviewService, promoCodeService);
+    }
+
+    private Booking prepareBooking(BookingValidationContext context, LocalDate checkIn, LocalDate checkOut) {
+        validator.validate(context);
+
+        LocalDate stayStart = checkIn != null ? checkIn : LocalDate.now();
+        LocalDate stayEnd = checkOut != null ? checkOut : stayStart.plusDays(1);
+        if (!stayEnd.isAfter(stayStart)) {
+            throw new IllegalArgumentException("checkOut must be after checkIn");
         }
-        if (hotelService.isHotelFullyBooked(hotelId)) {
-            log.warn("Hotel {} is fully booked", hotelId);
-            throw new IllegalArgumentException("Hotel is fully booked");
+
+        double basePrice = resolveBasePrice(context);
+        double discount = resolvePromoDiscount(context);
+
+        double finalPrice = basePrice - discount;
+        log.info("Final price calculated: base={}, discount={}, final={}", basePrice, discount, finalPrice);
+
+        Booking booking = new Booking();
+        booking.setUserId(context.getUserId());
+        booking.setHotelId(context.getHotelId());
+        booking.setPromoCode(context.getPromoCode());
+        booking.setDiscountPercent(discount);
+        booking.setPrice(finalPrice);
+        booking.setCheckIn(stayStart);
+        booking.setCheckOut(stayEnd);
+        return booking;
+    }
+
+    private boolean reserveRooms(Booking booking) {
+        boolean reserved = metrics.record(Stage.INVENTORY,
+                () -> inventoryService.reserve(booking.getHotelId(), booking.getCheckIn(), booking.getCheckOut()));
+        if (!reserved) {
+            log.warn("Hotel {} has no rooms left between {} and {}",
+                    booking.getHotelId(), booking.getCheckIn(), booking.getCheckOut());
         }
+        return reserved;
     }
 
-    private double resolveBasePrice(String userId) {
-        Optional<String> statusOpt = userService.getUserStatus(userId);
+    private double resolveBasePrice(BookingValidationContext context) {
+        String userId = context.getUserId();
+        Optional<String> statusOpt = context.getUserStatus();
         return statusOpt.map(status -> {
             boolean isVip = status.equalsIgnoreCase("VIP");
             log.debug("User {} has status '{}', base price is {}", userId, status, isVip ? 80.0 : 100.0);
@@ -102,12 +360,13 @@ public class BookingService {
         });
     }
 
-    private double resolvePromoDiscount(String promoCode, String userId) {
+    private double resolvePromoDiscount(BookingValidationContext context) {
+        String promoCode = context.getPromoCode();
         if (promoCode == null) return 0.0;
 
-        PromoCode promo = promoCodeService.validate(promoCode, userId);
+        PromoCode promo = context.getValidPromo().orElse(null);
         if (promo == null) {
-            log.info("Promo code '{}' is invalid or not applicable for user {}", promoCode, userId);
+            log.info("Promo code '{}' is invalid or not applicable for user {}", promoCode, context.getUserId());
             return 0.0;
         }
 
@@ -0,0 +1,97 @@
+package com.hotelio.monolith.service;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.hotelio.monolith.entity.Booking;
+import com.hotelio.proto.booking.BookingListRequest;
+import com.hotelio.proto.booking.BookingRequest;
+import com.hotelio.proto.booking.BookingResponse;
+import com.hotelio.proto.booking.BookingServiceGrpc;
+import io.grpc.ManagedChannel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking client for booking-service. Every call carries its own deadline (shortened further
+ * by any deadline already on the caller's gRPC context); retries, hedging and load balancing
+ * come from the channel's service config, see BookingGrpcClientConfig.
+ */
+public class BookingServiceClient {
+
+    private final BookingServiceGrpc.BookingServiceFutureStub stub;
+    private final Duration createDeadline;
+    private final Duration listDeadline;
+
+    public BookingServiceClient(ManagedChannel channel, Duration createDeadline, Duration listDeadline) {
+        this.stub = BookingServiceGrpc.newFutureStub(channel);
+        this.createDeadline = createDeadline;
+        this.listDeadline = listDeadline;
+    }
+
+    public CompletableFuture<Booking> createBooking(String userId, String hotelId, String promoCode) {
+        BookingRequest request = BookingRequest.newBuilder()
+                .setUserId(userId)
+                .setHotelId(hotelId)
+                .setPromoCode(promoCode != null ? promoCode : "")
+                .build();
+        return toCompletable(stub.withDeadlineAfter(createDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                .createBooking(request))
+                .thenApply(BookingServiceClient::toBooking);
+    }
+
+    public CompletableFuture<List<Booking>> listBookings(String userId) {
+        BookingListRequest request = BookingListRequest.newBuilder()
+                .setUserId(userId != null ? userId : "")
+                .build();
+        return toCompletable(stub.withDeadlineAfter(listDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                .listBookings(request))
+                .thenApply(response -> response.getBookingsList().stream()
+                        .map(BookingServiceClient::toBooking)
+                        .toList());
+    }
+
+    private static <T> CompletableFuture<T> toCompletable(ListenableFuture<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                // cancelling the future cancels the RPC
+                call.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private static Booking toBooking(BookingResponse response) {
+        Booking booking = new Booking();
+        if (!response.getId().isBlank()) {
+            booking.setId(Long.parseLong(response.getId()));
+        }
+        booking.setUserId(response.getUserId());
+        booking.setHotelId(response.getHotelId());
+        booking.setPromoCode(response.getPromoCode().isEmpty() ? null : response.getPromoCode());
+        booking.setDiscountPercent(response.getDiscountPercent());
+        booking.setPrice(response.getPrice());
+        if (!response.getCreatedAt().isBlank() && !"null".equals(response.getCreatedAt())) {
+            booking.setCreatedAt(Instant.parse(response.getCreatedAt()));
+        }
+        return booking;
+    }
+}
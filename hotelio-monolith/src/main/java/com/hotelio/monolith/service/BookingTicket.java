@@ -0,0 +1,33 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.Booking;
+
+/**
+ * State of a booking submitted asynchronously, see {@link BookingWriter}. {@code booking} is set for
+ * COMMITTED, {@code error} for REJECTED and FAILED.
+ */
+public record BookingTicket(String id, Status status, Booking booking, String error) {
+
+    public enum Status {
+        PENDING,
+        COMMITTED,
+        REJECTED,
+        FAILED
+    }
+
+    public static BookingTicket pending(String id) {
+        return new BookingTicket(id, Status.PENDING, null, null);
+    }
+
+    public static BookingTicket committed(String id, Booking booking) {
+        return new BookingTicket(id, Status.COMMITTED, booking, null);
+    }
+
+    public static BookingTicket rejected(String id, String error) {
+        return new BookingTicket(id, Status.REJECTED, null, error);
+    }
+
+    public static BookingTicket failed(String id, String error) {
+        return new BookingTicket(id, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,91 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.PromoCode;
+import com.hotelio.monolith.repository.HotelBookability;
+import com.hotelio.monolith.repository.UserEligibility;
+
+import java.util.Optional;
+
+/**
+ * Snapshot of everything a single booking needs for validation and pricing.
+ * Rows come from {@link BookingLookups}, which loads each one lazily on first access and then
+ * reuses it, so a booking hits app_user, hotel, review and promo_code at most once each.
+ */
+public class BookingValidationContext {
+
+    private final String userId;
+    private final String hotelId;
+    private final String promoCode;
+    private final BookingLookups lookups;
+
+    public BookingValidationContext(String userId, String hotelId, String promoCode, BookingLookups lookups) {
+        this.userId = userId;
+        this.hotelId = hotelId;
+        this.promoCode = promoCode;
+        this.lookups = lookups;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public String getPromoCode() {
+        return promoCode;
+    }
+
+    public BookingLookups getLookups() {
+        return lookups;
+    }
+
+    public Optional<UserEligibility> getUser() {
+        return lookups.user(userId);
+    }
+
+    public Optional<HotelBookability> getHotel() {
+        return lookups.hotel(hotelId);
+    }
+
+    public Optional<ReviewAggregate> getReviews() {
+        return lookups.reviews(hotelId);
+    }
+
+    public Optional<PromoCode> getPromo() {
+        return promoCode == null ? Optional.empty() : lookups.promo(promoCode);
+    }
+
+    public boolean isUserActive() {
+        return getUser().map(UserEligibility::active).orElse(false);
+    }
+
+    public boolean isUserBlacklisted() {
+        return getUser().map(UserEligibility::blacklisted).orElse(false);
+    }
+
+    public Optional<String> getUserStatus() {
+        return getUser().map(UserEligibility::status);
+    }
+
+    public boolean isVipUser() {
+        return getUserStatus().map("VIP"::equalsIgnoreCase).orElse(false);
+    }
+
+    public boolean isHotelOperational() {
+        return getHotel().map(HotelBookability::operational).orElse(false);
+    }
+
+    public boolean isHotelFullyBooked() {
+        return getHotel().map(HotelBookability::fullyBooked).orElse(true);
+    }
+
+    public boolean isHotelTrusted() {
+        return lookups.getReviewService().isTrusted(getReviews());
+    }
+
+    public Optional<PromoCode> getValidPromo() {
+        return getPromo().filter(p -> lookups.getPromoCodeService().isApplicable(p, isVipUser()));
+    }
+}
@@ -0,0 +1,170 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.service.BookingMetrics.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User and hotel checks for a booking. In SEQUENTIAL mode the checks run one after another on
+ * the request thread. In PARALLEL mode the user, hotel, review and promo lookups are fanned out
+ * on a bounded executor; each check runs as soon as its data arrives, the first failed check
+ * cancels the remaining lookups, and the whole fan-out is bounded by {@code booking.validation.timeout}.
+ */
+@Component
+public class BookingValidator {
+
+    public enum Mode {
+        SEQUENTIAL,
+        PARALLEL
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(BookingValidator.class);
+    private final Executor executor;
+    private final Mode mode;
+    private final Duration timeout;
+    private final Timer validationTimer;
+    private final BookingMetrics metrics;
+
+    public BookingValidator(@Qualifier("bookingValidationExecutor") Executor executor,
+                            @Value("${booking.validation.mode:sequential}") Mode mode,
+                            @Value("${booking.validation.timeout:PT2S}") Duration timeout,
+                            MeterRegistry meterRegistry,
+                            BookingMetrics metrics) {
+        this.executor = executor;
+        this.mode = mode;
+        this.timeout = timeout;
+        this.metrics = metrics;
+        this.validationTimer = Timer.builder("booking.validation")
+                .description("Time spent on user and hotel checks for a booking")
+                .tag("mode", mode.name().toLowerCase())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void validate(BookingValidationContext context) {
+        Timer.Sample sample = Timer.start();
+        try {
+            // a preloaded batch already has every row in memory, nothing to fan out
+            if (mode == Mode.PARALLEL && !context.getLookups().isPreloaded()) {
+                validateInParallel(context);
+            } else {
+                validateSequentially(context);
+            }
+        } finally {
+            sample.stop(validationTimer);
+        }
+    }
+
+    private void validateSequentially(BookingValidationContext context) {
+        metrics.record(Stage.USER, () -> checkUser(context));
+        metrics.record(Stage.HOTEL, () -> checkHotelOperational(context));
+        metrics.record(Stage.REVIEWS, () -> checkHotelTrusted(context));
+        checkHotelNotFullyBooked(context);
+        if (context.getPromoCode() != null) {
+            // resolved here rather than during pricing so the promo lookup gets its own stage timing
+            metrics.record(Stage.PROMO, context::getValidPromo);
+        }
+    }
+
+    private void validateInParallel(BookingValidationContext context) {
+        BookingLookups lookups = context.getLookups();
+        String userId = context.getUserId();
+        String hotelId = context.getHotelId();
+        String promoCode = context.getPromoCode();
+
+        // each lookup returns a step that stores the row and runs the checks depending on it on this thread
+        ExecutorCompletionService<Runnable> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Runnable>> futures = new ArrayList<>();
+        futures.add(completion.submit(() -> then(
+                metrics.record(Stage.USER, () -> lookups.loadUser(userId)),
+                () -> checkUser(context))));
+        futures.add(completion.submit(() -> then(
+                metrics.record(Stage.HOTEL, () -> lookups.loadHotel(hotelId)),
+                () -> {
+                    checkHotelOperational(context);
+                    checkHotelNotFullyBooked(context);
+                })));
+        futures.add(completion.submit(() -> then(
+                metrics.record(Stage.REVIEWS, () -> lookups.loadReviews(hotelId)),
+                () -> checkHotelTrusted(context))));
+        if (promoCode != null) {
+            futures.add(completion.submit(() -> metrics.record(Stage.PROMO, () -> lookups.loadPromo(promoCode))));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Runnable> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    log.warn("Booking validation for user {} and hotel {} exceeded {}", userId, hotelId, timeout);
+                    throw new IllegalStateException("Booking validation timed out");
+                }
+                done.get().run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Booking validation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Booking validation failed", e.getCause());
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private static Runnable then(Runnable store, Runnable checks) {
+        return () -> {
+            store.run();
+            checks.run();
+        };
+    }
+
+    private void checkUser(BookingValidationContext context) {
+        String userId = context.getUserId();
+        if (!context.isUserActive()) {
+            log.warn("User {} is inactive", userId);
+            throw new IllegalArgumentException("User is inactive");
+        }
+        if (context.isUserBlacklisted()) {
+            log.warn("User {} is blacklisted", userId);
+            throw new IllegalArgumentException("User is blacklisted");
+        }
+    }
+
+    private void checkHotelOperational(BookingValidationContext context) {
+        if (!context.isHotelOperational()) {
+            log.warn("Hotel {} is not operational", context.getHotelId());
+            throw new IllegalArgumentException("Hotel is not operational");
+        }
+    }
+
+    private void checkHotelTrusted(BookingValidationContext context) {
+        if (!context.isHotelTrusted()) {
+            log.warn("Hotel {} is not trusted", context.getHotelId());
+            throw new IllegalArgumentException("Hotel is not trusted based on reviews");
+        }
+    }
+
+    private void checkHotelNotFullyBooked(BookingValidationContext context) {
+        if (context.isHotelFullyBooked()) {
+            log.warn("Hotel {} is fully booked", context.getHotelId());
+            throw new IllegalArgumentException("Hotel is fully booked");
+        }
+    }
+}
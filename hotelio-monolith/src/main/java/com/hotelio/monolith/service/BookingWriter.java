@@ -0,0 +1,306 @@
+package com.hotelio.monolith.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelio.monolith.config.ReadYourWrites;
+import com.hotelio.monolith.entity.Booking;
+import com.hotelio.monolith.repository.BookingRepository;
+import com.hotelio.monolith.service.BookingMetrics.Outcome;
+import com.hotelio.monolith.service.BookingMetrics.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for bookings submitted with "Prefer: respond-async": validated bookings wait in a bounded
+ * queue, and a single writer thread reserves rooms for and inserts up to booking.async.max-group-size of them
+ * in one transaction, waiting at most booking.async.max-wait after the first one for the group to fill.
+ * A full queue rejects the submission instead of blocking the request thread.
+ * <p>
+ * Every booking carries its ticket into the booking table, in the same transaction, so the database is the
+ * record of what was committed: a ticket the writer no longer remembers (restart, retention expired) is
+ * COMMITTED if its booking exists and unknown otherwise. On shutdown the writer stops accepting and commits
+ * what is queued before the connection pool closes; only a crash loses queued bookings, whose tickets then
+ * read as unknown.
+ * <p>
+ * Pending tickets live only in this instance, so an unknown ticket may still be queued elsewhere. Clients that
+ * resubmit pass the ticket as their idempotency key: the unique ticket column lets only one of the submissions
+ * commit, and the others report that one's booking.
+ */
+@Component
+public class BookingWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingWriter.class);
+    private static final long POLL_MILLIS = 100;
+    private static final String NO_ROOMS = "No rooms available for the requested dates";
+    // ticket status is readable by the client; the cause goes to the log only
+    private static final String NOT_SAVED = "Booking could not be saved, try again later";
+
+    private final BookingRepository bookingRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingMetrics metrics;
+    private final ReadYourWrites readYourWrites;
+    private final boolean enabled;
+    private final int maxGroupSize;
+    private final long maxWaitNanos;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, BookingTicket> tickets;
+    private final DistributionSummary groupSizes;
+    private final Timer commitTimer;
+    private final Counter queueFull;
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookingWriter(BookingRepository bookingRepository,
+                         InventoryService inventoryService,
+                         TransactionTemplate transactionTemplate,
+                         BookingMetrics metrics,
+                         ReadYourWrites readYourWrites,
+                         MeterRegistry meterRegistry,
+                         @Value("${booking.async.enabled:true}") boolean enabled,
+                         @Value("${booking.async.queue-capacity:10000}") int queueCapacity,
+                         @Value("${booking.async.max-group-size:200}") int maxGroupSize,
+                         @Value("${booking.async.max-wait:PT0.01S}") Duration maxWait,
+                         @Value("${booking.async.ticket-retention:PT10M}") Duration ticketRetention,
+                         @Value("${booking.async.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.bookingRepository = bookingRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.readYourWrites = readYourWrites;
+        this.enabled = enabled;
+        this.maxGroupSize = maxGroupSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketRetention).build();
+        Gauge.builder("booking.async.queue", queue, BlockingQueue::size)
+                .description("Validated bookings waiting for the group-commit writer")
+                .register(meterRegistry);
+        this.groupSizes = DistributionSummary.builder("booking.async.group.size")
+                .description("Bookings committed per writer transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("booking.async.commit")
+                .description("Duration of one group-commit transaction")
+                .register(meterRegistry);
+        this.queueFull = Counter.builder("booking.async.rejected")
+                .description("Asynchronous submissions turned away because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public boolean isAccepting() {
+        return running;
+    }
+
+    /**
+     * Queues a validated booking and returns its PENDING ticket, under {@code id} (the client's idempotency
+     * key) or a new one when it is null. An id this writer already holds returns that ticket instead.
+     *
+     * @throws RejectedExecutionException when the queue is full or the writer is not running
+     */
+    public BookingTicket submit(Booking booking, String id) {
+        if (!running) {
+            throw new RejectedExecutionException("Asynchronous booking is not accepting submissions");
+        }
+        boolean clientKey = id != null;
+        if (!clientKey) {
+            id = UUID.randomUUID().toString();
+        }
+        booking.setTicket(id);
+        BookingTicket ticket = BookingTicket.pending(id);
+        BookingTicket known = tickets.asMap().putIfAbsent(id, ticket);
+        if (known != null) {
+            return known;
+        }
+        if (!queue.offer(new Pending(id, booking, clientKey))) {
+            tickets.invalidate(id);
+            queueFull.increment();
+            throw new RejectedExecutionException("Booking queue is full");
+        }
+        return ticket;
+    }
+
+    public Optional<BookingTicket> ticket(String id) {
+        BookingTicket ticket = tickets.getIfPresent(id);
+        if (ticket != null) {
+            return Optional.of(ticket);
+        }
+        return bookingRepository.findByTicket(id).map(booking -> BookingTicket.committed(id, booking));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        writer = new Thread(this::drain, "booking-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) return;
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+            log.warn("Booking writer did not finish within {}, {} queued bookings are not committed",
+                    shutdownTimeout, queue.size());
+            return;
+        }
+        // submissions that passed the running check while the writer was finishing
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            commit(remaining);
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // stop after the web server, so requests accepted during graceful shutdown are still committed
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Pending> group = new ArrayList<>(maxGroupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                group.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxGroupSize) {
+                    queue.drainTo(group, maxGroupSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxGroupSize || remaining <= 0) break;
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                group.forEach(p -> fail(p, "Writer stopped before the booking was committed"));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Booking writer failed on a group of {} bookings", group.size(), e);
+                group.forEach(p -> fail(p, NOT_SAVED));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        groupSizes.record(group.size());
+        // (hotel, stay) order across the group, so groups lock inventory rows in the same order as other writers
+        group.sort(Comparator.comparing((Pending p) -> p.booking().getHotelId())
+                .thenComparing(p -> p.booking().getCheckIn()));
+        List<Pending> reserved = new ArrayList<>();
+        List<Pending> rejected = new ArrayList<>();
+        try {
+            commitTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (Pending pending : group) {
+                    (reserve(pending.booking()) ? reserved : rejected).add(pending);
+                }
+                metrics.record(Stage.SAVE,
+                        () -> bookingRepository.saveAll(reserved.stream().map(Pending::booking).toList()));
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            if (group.size() == 1) {
+                Pending pending = group.get(0);
+                // a resubmission whose ticket another instance committed first
+                Optional<Booking> committed = findCommitted(pending.ticket());
+                if (committed.isPresent()) {
+                    tickets.put(pending.ticket(), BookingTicket.committed(pending.ticket(), committed.get()));
+                    return;
+                }
+                log.error("Failed to commit booking ticket {}", pending.ticket(), e);
+                fail(pending, NOT_SAVED);
+                return;
+            }
+            // one bad booking must not fail the others: retry each in its own transaction, with ids
+            // from the rolled-back insert cleared so the retry inserts again
+            group.forEach(p -> p.booking().setId(null));
+            log.warn("Group commit of {} bookings failed, committing them one by one: {}", group.size(), e.getMessage());
+            for (Pending pending : group) {
+                commit(new ArrayList<>(List.of(pending)));
+            }
+            return;
+        }
+        for (Pending pending : reserved) {
+            tickets.put(pending.ticket(), BookingTicket.committed(pending.ticket(), pending.booking()));
+            readYourWrites.recordWrite(BookingService.userKey(pending.booking().getUserId()));
+            metrics.count(Outcome.CREATED);
+        }
+        for (Pending pending : rejected) {
+            // the rooms may have gone to an earlier submission of the same key
+            Optional<Booking> committed = pending.clientKey() ? findCommitted(pending.ticket()) : Optional.empty();
+            if (committed.isPresent()) {
+                tickets.put(pending.ticket(), BookingTicket.committed(pending.ticket(), committed.get()));
+                continue;
+            }
+            tickets.put(pending.ticket(), BookingTicket.rejected(pending.ticket(), NO_ROOMS));
+            metrics.count(Outcome.REJECTED);
+        }
+    }
+
+    private boolean reserve(Booking booking) {
+        boolean reserved = metrics.record(Stage.INVENTORY,
+                () -> inventoryService.reserve(booking.getHotelId(), booking.getCheckIn(), booking.getCheckOut()));
+        if (!reserved) {
+            log.warn("Hotel {} has no rooms left between {} and {}",
+                    booking.getHotelId(), booking.getCheckIn(), booking.getCheckOut());
+        }
+        return reserved;
+    }
+
+    private Optional<Booking> findCommitted(String ticket) {
+        try {
+            return bookingRepository.findByTicket(ticket);
+        } catch (DataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void fail(Pending pending, String error) {
+        tickets.put(pending.ticket(), BookingTicket.failed(pending.ticket(), error));
+        metrics.count(Outcome.FAILED);
+    }
+
+    private record Pending(String ticket, Booking booking, boolean clientKey) {
+    }
+}
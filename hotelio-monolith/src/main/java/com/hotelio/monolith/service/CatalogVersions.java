@@ -0,0 +1,80 @@
+package com.hotelio.monolith.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelio.monolith.config.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps for catalog resources, used as HTTP ETags. A stamp is handed out on the first read of a key
+ * and dropped when this instance changes the resource (after commit) or when version-ttl runs out, so writes
+ * made through another instance are picked up within the same window the reference near cache already allows.
+ */
+@Component
+public class CatalogVersions {
+
+    // distinguishes stamps across restarts and instances
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong nextStamp = new AtomicLong();
+    private final Cache<String, Long> stamps;
+    private final ReadYourWrites readYourWrites;
+
+    public CatalogVersions(@Value("${http-cache.version-ttl:PT60S}") Duration ttl, ReadYourWrites readYourWrites) {
+        this.stamps = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(100_000).build();
+        this.readYourWrites = readYourWrites;
+    }
+
+    public static String hotel(String hotelId) {
+        return "hotel:" + hotelId;
+    }
+
+    public static String hotelsInCity(String city) {
+        return "city:" + city;
+    }
+
+    public static String reviews(String hotelId) {
+        return "reviews:" + hotelId;
+    }
+
+    public static String promo(String code) {
+        return "promo:" + code;
+    }
+
+    // weak: Tomcat only compresses responses without a strong ETag
+    public String etag(String key) {
+        return "W/\"" + epoch + "-" + Long.toString(stamps.get(key, k -> nextStamp.incrementAndGet()), 36) + "\"";
+    }
+
+    /**
+     * Marks resources as changed. Stamps are dropped after commit, so a read racing the write cannot stamp
+     * the old state with a new version; until then reads of the keys go to the primary (see ReadYourWrites).
+     */
+    public void changed(String... keys) {
+        for (String key : keys) {
+            readYourWrites.recordWrite(key);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(keys);
+                }
+            });
+        } else {
+            invalidate(keys);
+        }
+    }
+
+    private void invalidate(String... keys) {
+        for (String key : keys) {
+            stamps.invalidate(key);
+        }
+    }
+}
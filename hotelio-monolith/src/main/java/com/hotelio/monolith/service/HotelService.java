@@ -1,32 +1,82 @@
 package com.hotelio.monolith.service;
 
+import com.hotelio.monolith.config.ReadYourWrites;
 import com.hotelio.monolith.entity.Hotel;
+import com.hotelio.monolith.repository.HotelBookability;
 import com.hotelio.monolith.repository.HotelRepository;
+import com.hotelio.monolith.service.KnownIds.Kind;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class HotelService {
 
     private final HotelRepository repo;
+    private final TopRatedHotelIndex topRatedIndex;
+    private final InventoryService inventoryService;
+    private final ReadYourWrites readYourWrites;
+    private final CatalogVersions catalogVersions;
+    private final KnownIds knownIds;
+    private final SingleFlight singleFlight;
 
-    public HotelService(HotelRepository repo) {
+    public HotelService(HotelRepository repo, TopRatedHotelIndex topRatedIndex, InventoryService inventoryService,
+                        ReadYourWrites readYourWrites, CatalogVersions catalogVersions, KnownIds knownIds,
+                        SingleFlight singleFlight) {
         this.repo = repo;
+        this.topRatedIndex = topRatedIndex;
+        this.inventoryService = inventoryService;
+        this.readYourWrites = readYourWrites;
+        this.catalogVersions = catalogVersions;
+        this.knownIds = knownIds;
+        this.singleFlight = singleFlight;
     }
 
     public boolean isHotelOperational(String hotelId) {
-        return repo.findById(hotelId).map(Hotel::isOperational).orElse(false);
+        return getBookability(hotelId).map(HotelBookability::operational).orElse(false);
     }
 
+    // fullyBooked is a manual stop-sell flag; otherwise the hotel is full when tonight's inventory is gone
     public boolean isHotelFullyBooked(String hotelId) {
-        return repo.findById(hotelId).map(Hotel::isFullyBooked).orElse(true);
+        return getBookability(hotelId)
+                .map(hotel -> hotel.fullyBooked() || inventoryService.isSoldOut(hotelId, LocalDate.now()))
+                .orElse(true);
     }
 
+    // operational, fully-booked and city in one row, without loading the Hotel entity; unknown ids skip the query,
+    // concurrent lookups of the same hotel share one
+    public Optional<HotelBookability> getBookability(String hotelId) {
+        return knownIds.lookup(Kind.HOTEL, hotelId,
+                () -> singleFlight.execute("hotelFlags", hotelId, () -> repo.findBookabilityById(hotelId)));
+    }
+
+    public Map<String, HotelBookability> getBookabilityByIds(Collection<String> hotelIds) {
+        return repo.findBookabilityByIdIn(knownIds.retainPossible(Kind.HOTEL, hotelIds)).stream()
+                .collect(Collectors.toMap(HotelBookability::id, Function.identity()));
+    }
+
+    public Map<LocalDate, Integer> getAvailability(String hotelId, LocalDate from, LocalDate to) {
+        return inventoryService.availability(hotelId, from, to);
+    }
+
+    // right after updateRating the evicted cache entry is refilled from the primary, not a lagging replica
     public Optional<Hotel> getHotelById(String hotelId) {
-        return repo.findById(hotelId);
+        return knownIds.lookup(Kind.HOTEL, hotelId, () -> singleFlight.execute("hotel", hotelId,
+                () -> readYourWrites.read(CatalogVersions.hotel(hotelId), () -> repo.findById(hotelId))));
+    }
+
+    public Map<String, Hotel> getHotelsByIds(Collection<String> hotelIds) {
+        return repo.findAllById(knownIds.retainPossible(Kind.HOTEL, hotelIds)).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
     }
 
     public List<Hotel> findHotelsInCity(String city) {
@@ -35,9 +85,23 @@ public class HotelService {
     }
 
     public List<Hotel> findTopRatedHotelsInCity(String city, int limit) {
-        if (city == null || city.isBlank()) return Collections.emptyList();
-        return repo.findByCityOrderByRatingDesc(city).stream()
-                .limit(limit)
-                .toList();
+        if (city == null || city.isBlank() || limit <= 0) return Collections.emptyList();
+        if (topRatedIndex.canServe(limit)) {
+            return topRatedIndex.top(city, limit);
+        }
+        return repo.findByCityOrderByRatingDesc(city, Limit.of(limit));
+    }
+
+    // modifies an uncached copy: the cached Hotel is shared, and an uncommitted rating must not leak through it
+    @Transactional
+    public Optional<Hotel> updateRating(String hotelId, double rating) {
+        return repo.findForUpdateById(hotelId).map(hotel -> {
+            hotel.setRating(rating);
+            Hotel saved = repo.save(hotel);
+            topRatedIndex.onHotelUpdated(saved);
+            catalogVersions.changed(CatalogVersions.hotel(hotelId), CatalogVersions.hotelsInCity(saved.getCity()));
+            singleFlight.changed("hotel", hotelId);
+            return saved;
+        });
     }
 }
@@ -0,0 +1,110 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.Hotel;
+import com.hotelio.monolith.entity.RoomInventory;
+import com.hotelio.monolith.repository.HotelRepository;
+import com.hotelio.monolith.repository.RoomInventoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-hotel, per-night room inventory. Each night is split into {@code stripes} rows and a
+ * reservation takes one room from a randomly chosen stripe with a conditional UPDATE
+ * (reserved < capacity), so it can never oversell and parallel bookings for the same hotel
+ * rarely wait on the same row lock. Rows for a night are created on first use from the hotel's
+ * room count.
+ */
+@Service
+public class InventoryService {
+
+    private final RoomInventoryRepository inventoryRepository;
+    private final HotelRepository hotelRepository;
+    private final int stripes;
+    private final int defaultRoomCount;
+
+    public InventoryService(RoomInventoryRepository inventoryRepository,
+                            HotelRepository hotelRepository,
+                            @Value("${inventory.stripes:4}") int stripes,
+                            @Value("${inventory.default-room-count:50}") int defaultRoomCount) {
+        this.inventoryRepository = inventoryRepository;
+        this.hotelRepository = hotelRepository;
+        this.stripes = stripes;
+        this.defaultRoomCount = defaultRoomCount;
+    }
+
+    /**
+     * Takes one room for every night in [checkIn, checkOut). Either all nights are reserved or,
+     * when one of them is sold out, the nights already taken are released and false is returned.
+     */
+    @Transactional
+    public boolean reserve(String hotelId, LocalDate checkIn, LocalDate checkOut) {
+        Map<LocalDate, Integer> taken = new LinkedHashMap<>();
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            int stripe = reserveNight(hotelId, night);
+            if (stripe < 0) {
+                taken.forEach((n, s) -> inventoryRepository.releaseOne(hotelId, n, s));
+                return false;
+            }
+            taken.put(night, stripe);
+        }
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Integer> availability(String hotelId, LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> available = new TreeMap<>();
+        for (RoomInventory row : inventoryRepository.findByHotelIdAndNightBetween(hotelId, from, to.minusDays(1))) {
+            available.merge(row.getNight(), row.getCapacity() - row.getReserved(), Integer::sum);
+        }
+        int roomCount = roomCount(hotelId);
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            available.putIfAbsent(night, roomCount);
+        }
+        return available;
+    }
+
+    public boolean isSoldOut(String hotelId, LocalDate night) {
+        return availability(hotelId, night, night.plusDays(1)).getOrDefault(night, 0) <= 0;
+    }
+
+    private int reserveNight(String hotelId, LocalDate night) {
+        int stripe = tryStripes(hotelId, night);
+        if (stripe < 0 && !inventoryRepository.existsByHotelIdAndNight(hotelId, night)) {
+            initNight(hotelId, night);
+            stripe = tryStripes(hotelId, night);
+        }
+        return stripe;
+    }
+
+    private int tryStripes(String hotelId, LocalDate night) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (start + i) % stripes;
+            if (inventoryRepository.reserveOne(hotelId, night, stripe) == 1) {
+                return stripe;
+            }
+        }
+        return -1;
+    }
+
+    private void initNight(String hotelId, LocalDate night) {
+        int roomCount = roomCount(hotelId);
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int capacity = roomCount / stripes + (stripe < roomCount % stripes ? 1 : 0);
+            inventoryRepository.initStripe(hotelId, night, stripe, capacity);
+        }
+    }
+
+    private int roomCount(String hotelId) {
+        return hotelRepository.findById(hotelId)
+                .map(Hotel::getRoomCount)
+                .orElse(defaultRoomCount);
+    }
+}
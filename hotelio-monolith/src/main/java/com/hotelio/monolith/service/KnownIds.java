@@ -0,0 +1,196 @@
+package com.hotelio.monolith.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bloom filters over the user, hotel and promo code ids, so lookups of ids that do not exist are answered
+ * without a query. A filter answers "absent" only once it has been built; until then, and after
+ * {@link #invalidate()}, every id is treated as possibly present. Filled by {@link KnownIdsLoader}.
+ * <p>
+ * Inserts committed by other instances reach the filter one notification later, so a rejected id is only
+ * reported absent once {@link CatchUp} confirms that everything committed before the lookup has been
+ * applied; when that cannot be confirmed in time the lookup goes to the database.
+ */
+@Component
+public class KnownIds {
+
+    public enum Kind { USER, HOTEL, PROMO }
+
+    // waits until every id committed before the call has been added, false if that is not known in time
+    public interface CatchUp {
+        boolean await(Duration timeout);
+    }
+
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final Duration catchUpTimeout;
+    private final Map<Kind, Filter> filters = new EnumMap<>(Kind.class);
+    private volatile CatchUp catchUp = timeout -> false;
+
+    public KnownIds(@Value("${known-ids.enabled:true}") boolean enabled,
+                    @Value("${known-ids.false-positive-rate:0.01}") double falsePositiveRate,
+                    @Value("${known-ids.catch-up-timeout:PT0.2S}") Duration catchUpTimeout,
+                    MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.catchUpTimeout = catchUpTimeout;
+        for (Kind kind : Kind.values()) {
+            filters.put(kind, new Filter(kind, meterRegistry));
+        }
+    }
+
+    public static KnownIds disabled() {
+        return new KnownIds(false, 0.01, Duration.ZERO, Metrics.globalRegistry);
+    }
+
+    public void setCatchUp(CatchUp catchUp) {
+        this.catchUp = catchUp;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code query} unless the filter rules the id out. Empty results for ids the filter let through
+     * are counted as false positives (or ids deleted since the last rebuild).
+     */
+    public <T> Optional<T> lookup(Kind kind, String id, Supplier<Optional<T>> query) {
+        Filter filter = filters.get(kind);
+        if (filter.current == null) {
+            filter.unfiltered.increment();
+            return query.get();
+        }
+        if (id == null) {
+            filter.absent.increment();
+            return Optional.empty();
+        }
+        if (!filter.mightContain(id)) {
+            if (!catchUp.await(catchUpTimeout)) {
+                filter.unfiltered.increment();
+                return query.get();
+            }
+            if (!filter.mightContain(id)) {
+                filter.absent.increment();
+                return Optional.empty();
+            }
+        }
+        Optional<T> result = query.get();
+        (result.isPresent() ? filter.present : filter.falsePositive).increment();
+        return result;
+    }
+
+    // ids worth querying for; the rest are known not to exist
+    public List<String> retainPossible(Kind kind, Collection<String> ids) {
+        Filter filter = filters.get(kind);
+        List<String> candidates = ids.stream().filter(Objects::nonNull).toList();
+        List<String> possible = candidates.stream().filter(filter::mightContain).toList();
+        if (possible.size() < candidates.size()) {
+            if (!catchUp.await(catchUpTimeout)) {
+                filter.unfiltered.increment(candidates.size());
+                return candidates;
+            }
+            possible = candidates.stream().filter(filter::mightContain).toList();
+        }
+        filter.absent.increment(ids.size() - possible.size());
+        return possible;
+    }
+
+    public void add(Kind kind, String id) {
+        filters.get(kind).add(id);
+    }
+
+    /**
+     * Replaces the filter for {@code kind} with one sized for {@code expectedEntries} and filled by
+     * {@code scan}. Ids added while the scan runs go into both filters, so none is lost in the swap;
+     * the scan must start after this call has begun.
+     */
+    public void rebuild(Kind kind, long expectedEntries, Consumer<Consumer<String>> scan) {
+        if (!enabled) return;
+        Filter filter = filters.get(kind);
+        BloomFilter next = new BloomFilter(expectedEntries, falsePositiveRate);
+        filter.building = next;
+        try {
+            scan.accept(next::put);
+            filter.current = next;
+        } finally {
+            filter.building = null;
+        }
+    }
+
+    // back to "everything may exist" until the next rebuild, e.g. after missing insert notifications
+    public void invalidate() {
+        filters.values().forEach(filter -> filter.current = null);
+    }
+
+    private static final class Filter {
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+        private final Counter absent;
+        private final Counter present;
+        private final Counter falsePositive;
+        private final Counter unfiltered;
+
+        Filter(Kind kind, MeterRegistry meterRegistry) {
+            String tag = kind.name().toLowerCase();
+            this.absent = lookups(meterRegistry, tag, "absent");
+            this.present = lookups(meterRegistry, tag, "present");
+            this.falsePositive = lookups(meterRegistry, tag, "false_positive");
+            this.unfiltered = lookups(meterRegistry, tag, "unfiltered");
+            Gauge.builder("known_ids.filter.size", this, f -> f.current != null ? f.current.bitSize() / 8.0 : 0)
+                    .description("Memory held by the Bloom filter")
+                    .baseUnit("bytes")
+                    .tag("kind", tag)
+                    .register(meterRegistry);
+            Gauge.builder("known_ids.filter.capacity", this, f -> f.current != null ? f.current.capacity() : 0)
+                    .description("Entries the filter was sized for at its last rebuild")
+                    .tag("kind", tag)
+                    .register(meterRegistry);
+            Gauge.builder("known_ids.filter.expected_fpp", this,
+                            f -> f.current != null ? f.current.expectedFalsePositiveRate() : Double.NaN)
+                    .description("False-positive probability implied by the bits set so far")
+                    .tag("kind", tag)
+                    .register(meterRegistry);
+        }
+
+        boolean mightContain(String id) {
+            BloomFilter filter = current;
+            return filter == null || filter.mightContain(id);
+        }
+
+        // building before current: rebuild publishes current before clearing building, so one of the two sees the id
+        void add(String id) {
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(id);
+            }
+            BloomFilter filter = current;
+            if (filter != null) {
+                filter.put(id);
+            }
+        }
+
+        private static Counter lookups(MeterRegistry meterRegistry, String kind, String result) {
+            return Counter.builder("known_ids.lookups")
+                    .description("Id lookups by filter outcome; false_positive/(false_positive+absent) is the observed rate")
+                    .tag("kind", kind)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.repository.AppUserRepository;
+import com.hotelio.monolith.repository.HotelRepository;
+import com.hotelio.monolith.repository.PromoCodeRepository;
+import com.hotelio.monolith.service.KnownIds.Kind;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link KnownIds} in step with the database: LISTENs on the known_ids channel (fed by insert triggers,
+ * see V3__known_id_notifications.sql), then rebuilds every filter from a full id scan, and rebuilds again
+ * every known-ids.rebuild-interval to resize and to forget deleted ids. When the listening connection
+ * drops, the filters are invalidated until it is back, since inserts may have been missed.
+ * <p>
+ * Catching up for {@link KnownIds.CatchUp}: the listening session runs a query of its own, and Postgres
+ * delivers every notification committed before it ahead of the reply. Waiters that arrive together share
+ * one such round trip.
+ */
+@Component
+public class KnownIdsLoader implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownIdsLoader.class);
+    private static final String CHANNEL = "known_ids";
+    // also the longest a catch-up request waits for the listener to notice it
+    private static final int POLL_MILLIS = 20;
+    private static final long RETRY_MILLIS = 5000;
+    private static final long MIN_CAPACITY = 10_000;
+
+    private final KnownIds knownIds;
+    private final AppUserRepository userRepository;
+    private final HotelRepository hotelRepository;
+    private final PromoCodeRepository promoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource listenDataSource;
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+    private final AtomicLong catchUpRequested = new AtomicLong();
+    private final Object caughtUp = new Object();
+    private long catchUpCompleted; // guarded by caughtUp
+
+    public KnownIdsLoader(KnownIds knownIds,
+                          AppUserRepository userRepository,
+                          HotelRepository hotelRepository,
+                          PromoCodeRepository promoRepository,
+                          PlatformTransactionManager transactionManager,
+                          DataSourceProperties dataSourceProperties) {
+        this.knownIds = knownIds;
+        this.userRepository = userRepository;
+        this.hotelRepository = hotelRepository;
+        this.promoRepository = promoRepository;
+        // read-write, so the scan runs on the primary: a replica may not have replayed inserts
+        // that were notified before this instance started listening
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // a dedicated connection outside the pool, held for as long as the application runs
+        this.listenDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        knownIds.setCatchUp(this::awaitCaughtUp);
+    }
+
+    @Override
+    public void start() {
+        if (!knownIds.isEnabled()) return;
+        running = true;
+        listener = new Thread(this::listen, "known-ids-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stopListening();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${known-ids.rebuild-interval:PT1H}",
+            initialDelayString = "${known-ids.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        if (!running) return;
+        try {
+            rebuildAll();
+        } catch (RuntimeException e) {
+            log.warn("Scheduled rebuild of known id filters failed, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    boolean awaitCaughtUp(Duration timeout) {
+        if (!listening) return false;
+        long round = catchUpRequested.incrementAndGet();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (caughtUp) {
+            while (catchUpCompleted < round) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !listening) return false;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(caughtUp, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = listenDataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("listen " + CHANNEL);
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                // after LISTEN: ids inserted during the scan arrive as notifications
+                rebuildAll();
+                listening = true;
+                while (running) {
+                    long round = catchUpRequested.get();
+                    if (round > completedRound()) {
+                        // notifications committed before this query are delivered ahead of its reply
+                        statement.execute("select 1");
+                        apply(notifications.getNotifications());
+                        completeRound(round);
+                    } else {
+                        apply(notifications.getNotifications(POLL_MILLIS));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                knownIds.invalidate();
+                stopListening();
+                log.warn("Not receiving id inserts, unknown-id lookups go to the database until reconnected: {}",
+                        e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(PGNotification[] batch) {
+        if (batch == null) return;
+        for (PGNotification notification : batch) {
+            onInsert(notification.getParameter());
+        }
+    }
+
+    private long completedRound() {
+        synchronized (caughtUp) {
+            return catchUpCompleted;
+        }
+    }
+
+    private void completeRound(long round) {
+        synchronized (caughtUp) {
+            catchUpCompleted = round;
+            caughtUp.notifyAll();
+        }
+    }
+
+    // waiters fall back to the database instead of timing out one by one
+    private void stopListening() {
+        synchronized (caughtUp) {
+            listening = false;
+            caughtUp.notifyAll();
+        }
+    }
+
+    private void onInsert(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) return;
+        String id = payload.substring(separator + 1);
+        switch (payload.substring(0, separator)) {
+            case "user" -> knownIds.add(Kind.USER, id);
+            case "hotel" -> knownIds.add(Kind.HOTEL, id);
+            case "promo" -> knownIds.add(Kind.PROMO, id);
+            default -> log.debug("Ignoring known id notification {}", payload);
+        }
+    }
+
+    private synchronized void rebuildAll() {
+        long started = System.nanoTime();
+        rebuild(Kind.USER, userRepository::count, userRepository::streamAllIds);
+        rebuild(Kind.HOTEL, hotelRepository::count, hotelRepository::streamAllIds);
+        rebuild(Kind.PROMO, promoRepository::count, promoRepository::streamAllCodes);
+        log.info("Known id filters rebuilt in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // sized for twice the current rows, so inserts until the next rebuild keep the false-positive rate
+    private void rebuild(Kind kind, LongSupplier count, Supplier<Stream<String>> ids) {
+        knownIds.rebuild(kind, Math.max(MIN_CAPACITY, 2 * count.getAsLong()), sink ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<String> stream = ids.get()) {
+                        stream.forEach(sink);
+                    }
+                }));
+    }
+}
@@ -2,29 +2,45 @@ package com.hotelio.monolith.service;
 
 import com.hotelio.monolith.entity.PromoCode;
 import com.hotelio.monolith.repository.PromoCodeRepository;
+import com.hotelio.monolith.service.KnownIds.Kind;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PromoCodeService {
 
     private final PromoCodeRepository repository;
     private final AppUserService userService;
+    private final KnownIds knownIds;
 
-    public PromoCodeService(PromoCodeRepository repository, AppUserService userService) {
+    public PromoCodeService(PromoCodeRepository repository, AppUserService userService, KnownIds knownIds) {
         this.repository = repository;
         this.userService = userService;
+        this.knownIds = knownIds;
     }
 
     public Optional<PromoCode> getValidPromo(String code, boolean isVipUser) {
-        return repository.findById(code)
-                .filter(p -> !p.isExpired())
-                .filter(p -> !p.isVipOnly() || isVipUser);
+        return findByCode(code)
+                .filter(p -> isApplicable(p, isVipUser));
     }
 
+    public boolean isApplicable(PromoCode promo, boolean isVipUser) {
+        return !promo.isExpired() && (!promo.isVipOnly() || isVipUser);
+    }
+
+    // codes the Bloom filter rules out are answered without a query
     public Optional<PromoCode> findByCode(String code) {
-        return repository.findById(code);
+        return knownIds.lookup(Kind.PROMO, code, () -> repository.findById(code));
+    }
+
+    public Map<String, PromoCode> findByCodes(Collection<String> codes) {
+        return repository.findAllById(knownIds.retainPossible(Kind.PROMO, codes)).stream()
+                .collect(Collectors.toMap(PromoCode::getCode, Function.identity()));
     }
 
     public PromoCode validate(String promoCode, String userId) {
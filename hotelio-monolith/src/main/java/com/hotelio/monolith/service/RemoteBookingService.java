@@ -0,0 +1,52 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * BookingService that delegates to booking-service through BookingServiceClient. Like the jar's
+ * GrpcBookingService it has no local repository, so paging, streaming and batch creation fall
+ * back to listAll/createBooking in the base class.
+ */
+public class RemoteBookingService extends BookingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteBookingService.class);
+    private final BookingServiceClient client;
+
+    public RemoteBookingService(BookingServiceClient client) {
+        super(null, null, null, null, null);
+        this.client = client;
+    }
+
+    public BookingServiceClient getClient() {
+        return client;
+    }
+
+    @Override
+    public List<Booking> listAll(String userId) {
+        return join(() -> client.listBookings(userId).join());
+    }
+
+    @Override
+    public Booking createBooking(String userId, String hotelId, String promoCode) {
+        log.info("Creating booking in booking-service: userId={}, hotelId={}, promoCode={}", userId, hotelId, promoCode);
+        return join(() -> client.createBooking(userId, hotelId, promoCode).join());
+    }
+
+    // rethrow the gRPC StatusRuntimeException itself rather than the CompletionException wrapper
+    private static <T> T join(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
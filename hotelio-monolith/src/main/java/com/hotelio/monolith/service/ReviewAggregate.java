@@ -0,0 +1,19 @@
+package com.hotelio.monolith.service;
+
+public class ReviewAggregate {
+    private final double avgRating;
+    private final long reviewCount;
+
+    public ReviewAggregate(double avgRating, long reviewCount) {
+        this.avgRating = avgRating;
+        this.reviewCount = reviewCount;
+    }
+
+    public double getAvgRating() {
+        return avgRating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+}
@@ -0,0 +1,17 @@
+package com.hotelio.monolith.service;
+
+/**
+ * Body of POST /api/reviews. Carries no id: a review is always created, never merged over an existing one.
+ */
+public record ReviewRequest(String hotelId, String userId, String text, Integer rating) {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+    public static final int MAX_TEXT_LENGTH = 2000;
+
+    public boolean isValid() {
+        return hotelId != null && !hotelId.isBlank()
+                && rating != null && rating >= MIN_RATING && rating <= MAX_RATING
+                && (text == null || text.length() <= MAX_TEXT_LENGTH);
+    }
+}
@@ -1,52 +1,107 @@
 package com.hotelio.monolith.service;
 
+import com.hotelio.monolith.entity.HotelReviewStats;
 import com.hotelio.monolith.entity.Review;
+import com.hotelio.monolith.repository.HotelReviewStatsRepository;
 import com.hotelio.monolith.repository.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
 @Service
 public class ReviewService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReviewService.class);
     private final ReviewRepository reviewRepository;
+    private final HotelReviewStatsRepository statsRepository;
+    private final CatalogVersions catalogVersions;
+    private final SingleFlight singleFlight;
 
-    public ReviewService(ReviewRepository reviewRepository) {
+    public ReviewService(ReviewRepository reviewRepository,
+                         HotelReviewStatsRepository statsRepository,
+                         CatalogVersions catalogVersions,
+                         SingleFlight singleFlight) {
         this.reviewRepository = reviewRepository;
+        this.statsRepository = statsRepository;
+        this.catalogVersions = catalogVersions;
+        this.singleFlight = singleFlight;
+    }
+
+    public List<Review> getReviewsForHotel(String hotelId) {
+        return singleFlight.execute("reviews", hotelId, () -> reviewRepository.findByHotelId(hotelId));
     }
 
     public boolean isTrustedHotel(String hotelId) {
-        Optional<ReviewAggregate> aggregate = getAggregateForHotel(hotelId);
+        return isTrusted(getAggregateForHotel(hotelId));
+    }
+
+    public boolean isTrusted(Optional<ReviewAggregate> aggregate) {
         return aggregate.map(agg ->
                 agg.getAvgRating() >= 4.0 && agg.getReviewCount() >= 10
         ).orElse(false);
     }
 
-    private Optional<ReviewAggregate> getAggregateForHotel(String hotelId) {
-        List<Review> reviews = reviewRepository.findByHotelId(hotelId);
-        if (reviews.isEmpty()) return Optional.empty();
+    public Optional<ReviewAggregate> getAggregateForHotel(String hotelId) {
+        HotelReviewStats stats = singleFlight.execute("reviewStats", hotelId,
+                () -> statsRepository.findById(hotelId).orElseGet(() -> initStats(hotelId)));
+        if (stats.getReviewCount() == 0) return Optional.empty();
 
-        double avg = reviews.stream().mapToInt(Review::getRating).average().orElse(0);
-        return Optional.of(new ReviewAggregate(avg, reviews.size()));
+        return Optional.of(new ReviewAggregate(stats.getAvgRating(), stats.getReviewCount()));
     }
 
-    private static class ReviewAggregate {
-        private final double avgRating;
-        private final int reviewCount;
-
-        public ReviewAggregate(double avgRating, int reviewCount) {
-            this.avgRating = avgRating;
-            this.reviewCount = reviewCount;
+    public Map<String, ReviewAggregate> getAggregatesForHotels(Collection<String> hotelIds) {
+        Map<String, HotelReviewStats> stats = new HashMap<>();
+        statsRepository.findAllById(hotelIds).forEach(s -> stats.put(s.getHotelId(), s));
+        Map<String, ReviewAggregate> aggregates = new HashMap<>();
+        for (String hotelId : hotelIds) {
+            HotelReviewStats s = stats.computeIfAbsent(hotelId, this::initStats);
+            if (s.getReviewCount() > 0) {
+                aggregates.put(hotelId, new ReviewAggregate(s.getAvgRating(), s.getReviewCount()));
+            }
         }
+        return aggregates;
+    }
 
-        public double getAvgRating() {
-            return avgRating;
-        }
+    @Transactional
+    public Review addReview(ReviewRequest request) {
+        Review review = new Review();
+        review.setHotelId(request.hotelId());
+        review.setUserId(request.userId());
+        review.setText(request.text());
+        review.setRating(request.rating());
+        review.setCreatedAt(LocalDate.now());
+        Review saved = reviewRepository.save(review);
+        statsRepository.recordReview(saved.getHotelId(), saved.getRating());
+        catalogVersions.changed(CatalogVersions.reviews(saved.getHotelId()));
+        singleFlight.changed("reviews", saved.getHotelId());
+        singleFlight.changed("reviewStats", saved.getHotelId());
+        return saved;
+    }
 
-        public int getReviewCount() {
-            return reviewCount;
+    // Stats row is missing (reviews loaded before the aggregate existed): compute it once in the DB and keep it
+    private HotelReviewStats initStats(String hotelId) {
+        HotelReviewStats stats = computeStats(hotelId);
+        try {
+            statsRepository.save(stats);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Review stats for hotel {} were initialised concurrently", hotelId);
         }
+        return stats;
+    }
+
+    private HotelReviewStats computeStats(String hotelId) {
+        return reviewRepository.sumRatingsForHotel(hotelId)
+                .map(t -> new HotelReviewStats(hotelId, t.getReviewCount(), t.getRatingSum()))
+                .orElseGet(() -> new HotelReviewStats(hotelId, 0, 0));
     }
 }
@@ -0,0 +1,55 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.repository.HotelReviewStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes hotel_review_stats from the review table. Runs at startup and then periodically
+ * to pick up reviews written outside ReviewService (fixtures, manual SQL). Existing rows are corrected
+ * a chunk at a time with the chunk's rows locked, so concurrent increments wait for at most one chunk.
+ */
+@Component
+public class ReviewStatsRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewStatsRebuildJob.class);
+    private static final int CHUNK_SIZE = 500;
+
+    private final HotelReviewStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReviewStatsRebuildJob(HotelReviewStatsRepository statsRepository, TransactionTemplate transactionTemplate) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reviews.stats.rebuild-interval:PT10M}",
+            initialDelayString = "${reviews.stats.rebuild-interval:PT10M}")
+    public void rebuild() {
+        Integer inserted = transactionTemplate.execute(status -> statsRepository.insertMissingFromReviews());
+        AtomicInteger corrected = new AtomicInteger();
+        String after = "";
+        while (true) {
+            String from = after;
+            List<String> chunk = transactionTemplate.execute(status -> {
+                List<String> locked = statsRepository.lockAfter(from, CHUNK_SIZE);
+                if (!locked.isEmpty()) {
+                    corrected.addAndGet(statsRepository.reconcile(locked));
+                }
+                return locked;
+            });
+            if (chunk == null || chunk.size() < CHUNK_SIZE) break;
+            after = chunk.get(chunk.size() - 1);
+        }
+        log.info("Rebuilt review stats: {} hotels added, {} corrected", inserted, corrected.get());
+    }
+}
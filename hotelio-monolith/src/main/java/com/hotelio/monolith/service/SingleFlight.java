@@ -0,0 +1,123 @@
+package com.hotelio.monolith.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical lookups: the first caller for a key runs the query, callers arriving while
+ * it is in flight wait for and share its result (or exception). Nothing is kept once the query returns,
+ * so this only removes duplicate work during a spike and never serves a result that was already complete
+ * when the caller arrived. Callers inside a transaction always query themselves, since the leader's result
+ * may come from a different snapshot (or a replica) than the caller's transaction would see. Writers call
+ * {@link #changed} so that, once they commit, nobody joins a lookup that may have read the old state.
+ */
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Region> regions = new ConcurrentHashMap<>();
+
+    public SingleFlight(@Value("${single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static SingleFlight disabled() {
+        return new SingleFlight(false, Metrics.globalRegistry);
+    }
+
+    /**
+     * Returns {@code query}'s result, running it only if no identical {@code region}/{@code id} lookup is
+     * already in flight.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String region, String id, Supplier<T> query) {
+        if (!enabled || id == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        Region counters = regions.computeIfAbsent(region, r -> new Region(r, meterRegistry));
+        String key = key(region, id);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            counters.coalesced.increment();
+            return (T) await(leader);
+        }
+        counters.executed.increment();
+        try {
+            T result = query.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Detaches the lookup of {@code region}/{@code id} in flight when the current transaction commits (or
+     * now, outside one). Its callers keep their result; callers arriving afterwards run a new query, since
+     * the detached one may have started before the write and they may already have been told it succeeded.
+     */
+    public void changed(String region, String id) {
+        if (!enabled || id == null) return;
+        String key = key(region, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inFlight.remove(key);
+                }
+            });
+        } else {
+            inFlight.remove(key);
+        }
+    }
+
+    private static String key(String region, String id) {
+        return region + ":" + id;
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static final class Region {
+        private final Counter executed;
+        private final Counter coalesced;
+
+        Region(String region, MeterRegistry meterRegistry) {
+            this.executed = calls(meterRegistry, region, "executed");
+            this.coalesced = calls(meterRegistry, region, "coalesced");
+        }
+
+        private static Counter calls(MeterRegistry meterRegistry, String region, String result) {
+            return Counter.builder("single_flight.calls")
+                    .description("Lookups that ran their query (executed) or shared one already in flight (coalesced)")
+                    .tag("region", region)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.Hotel;
+import com.hotelio.monolith.repository.HotelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-city ranking of the top {@code capacity} hotels by rating.
+ * A city is loaded on first request and then kept up to date by {@link #onHotelUpdated(Hotel)};
+ * the TTL bounds staleness for writes that bypass the application.
+ */
+@Component
+public class TopRatedHotelIndex {
+
+    private static final Comparator<Hotel> BY_RATING_DESC = Comparator.comparingDouble(Hotel::getRating).reversed();
+
+    private final HotelRepository repo;
+    private final boolean enabled;
+    private final int capacity;
+    private final Duration ttl;
+    private final ConcurrentHashMap<String, CityRanking> rankings = new ConcurrentHashMap<>();
+
+    public TopRatedHotelIndex(HotelRepository repo,
+                              @Value("${hotels.top-rated-index.enabled:false}") boolean enabled,
+                              @Value("${hotels.top-rated-index.capacity:50}") int capacity,
+                              @Value("${hotels.top-rated-index.ttl:PT5M}") Duration ttl) {
+        this.repo = repo;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.ttl = ttl;
+    }
+
+    public boolean canServe(int limit) {
+        return enabled && limit <= capacity;
+    }
+
+    public List<Hotel> top(String city, int limit) {
+        CityRanking ranking = rankings.get(city);
+        if (ranking == null || !ranking.canServe(limit, ttl)) {
+            ranking = rankings.compute(city, (c, current) ->
+                    current != null && current.canServe(limit, ttl) ? current : load(c));
+        }
+        List<Hotel> hotels = ranking.hotels();
+        return hotels.subList(0, Math.min(limit, hotels.size()));
+    }
+
+    // inside a transaction the ranking changes after commit, so readers never see a rating that may roll back
+    public void onHotelUpdated(Hotel hotel) {
+        if (!enabled) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(hotel);
+                }
+            });
+        } else {
+            apply(hotel);
+        }
+    }
+
+    private void apply(Hotel hotel) {
+        rankings.replaceAll((city, ranking) -> city.equals(hotel.getCity())
+                ? ranking.upsert(hotel, capacity)
+                : ranking.remove(hotel.getId()));
+    }
+
+    private CityRanking load(String city) {
+        List<Hotel> hotels = repo.findByCityOrderByRatingDesc(city, Limit.of(capacity));
+        return new CityRanking(List.copyOf(hotels), hotels.size() < capacity, Instant.now());
+    }
+
+    /**
+     * {@code hotels} is always a correct prefix of the city ranking. {@code exhaustive} means it
+     * holds every hotel in the city, so any limit can be served from it.
+     */
+    private record CityRanking(List<Hotel> hotels, boolean exhaustive, Instant loadedAt) {
+
+        boolean canServe(int limit, Duration ttl) {
+            return (exhaustive || limit <= hotels.size()) && loadedAt.plus(ttl).isAfter(Instant.now());
+        }
+
+        CityRanking remove(String hotelId) {
+            if (hotels.stream().noneMatch(h -> h.getId().equals(hotelId))) return this;
+            List<Hotel> updated = new ArrayList<>(hotels);
+            updated.removeIf(h -> h.getId().equals(hotelId));
+            return new CityRanking(List.copyOf(updated), exhaustive, loadedAt);
+        }
+
+        CityRanking upsert(Hotel hotel, int capacity) {
+            List<Hotel> updated = new ArrayList<>(remove(hotel.getId()).hotels());
+            boolean belowKnownPrefix = !exhaustive
+                    && (updated.isEmpty() || hotel.getRating() < updated.get(updated.size() - 1).getRating());
+            if (belowKnownPrefix) {
+                return new CityRanking(List.copyOf(updated), false, loadedAt);
+            }
+            updated.add(hotel);
+            updated.sort(BY_RATING_DESC);
+            boolean stillExhaustive = exhaustive && updated.size() <= capacity;
+            if (updated.size() > capacity) {
+                updated.remove(updated.size() - 1);
+            }
+            return new CityRanking(List.copyOf(updated), stillExhaustive, loadedAt);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+-- Schema as previously generated by Hibernate (ddl-auto: create). "if not exists" and the statements at
+-- the end let Flyway adopt a database that Hibernate already built (spring.flyway.baseline-version: 0).
+
+create table if not exists app_user (
+    id          varchar(255) not null primary key,
+    name        varchar(255),
+    email       varchar(255),
+    status      varchar(255),
+    city        varchar(255),
+    active      boolean      not null,
+    blacklisted boolean      not null
+);
+
+create table if not exists hotel (
+    id           varchar(255)  not null primary key,
+    city         varchar(255),
+    description  varchar(1000),
+    rating       float(53)     not null,
+    operational  boolean       not null,
+    fully_booked boolean       not null,
+    room_count   integer
+);
+
+create table if not exists review (
+    id         varchar(255)  not null primary key,
+    hotel_id   varchar(255),
+    user_id    varchar(255),
+    text       varchar(2000),
+    rating     integer       not null,
+    created_at date
+);
+
+create table if not exists promo_code (
+    code        varchar(255) not null primary key,
+    description varchar(255),
+    discount    float(53)    not null,
+    vip_only    boolean      not null,
+    expired     boolean      not null,
+    valid_until date
+);
+
+create sequence if not exists booking_seq start with 1 increment by 50;
+
+create table if not exists booking (
+    id               bigint       default nextval('booking_seq') not null primary key,
+    user_id          varchar(255),
+    hotel_id         varchar(255),
+    promo_code       varchar(255),
+    discount_percent float(53),
+    price            float(53)    not null,
+    check_in         date,
+    check_out        date,
+    created_at       timestamp(6) with time zone
+);
+
+create table if not exists hotel_review_stats (
+    hotel_id     varchar(255) not null primary key,
+    review_count bigint       not null,
+    rating_sum   bigint       not null,
+    updated_at   timestamp(6) with time zone
+);
+
+create table if not exists room_inventory (
+    hotel_id varchar(255) not null,
+    night    date         not null,
+    stripe   integer      not null,
+    capacity integer      not null,
+    reserved integer      not null,
+    -- leads with hotel_id: per-hotel night ranges are read straight off the primary key
+    primary key (hotel_id, night, stripe)
+);
+
+-- A database Hibernate built has the old tables without the columns added since, and an identity
+-- booking.id instead of booking_seq; the sequence continues after the ids already handed out.
+alter table hotel add column if not exists room_count integer;
+alter table booking add column if not exists check_in date;
+alter table booking add column if not exists check_out date;
+alter table booking alter column id drop identity if exists;
+alter table booking alter column id set default nextval('booking_seq');
+alter sequence booking_seq owned by booking.id;
+select setval('booking_seq', coalesce(max(id), 1)) from booking;
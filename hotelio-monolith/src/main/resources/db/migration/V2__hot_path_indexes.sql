@@ -0,0 +1,14 @@
+-- One index per hot query; each is covered by HotPathQueryPlanTest.
+
+-- BookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc / streamByUserIdOrderByIdAsc:
+-- equality on user_id, keyset range and sort on id straight off the index.
+create index if not exists booking_user_id_id_idx on booking (user_id, id);
+
+-- ReviewRepository.findByHotelId / countByHotelId / sumRatingsForHotel.
+create index if not exists review_hotel_id_idx on review (hotel_id);
+
+-- HotelRepository.findByCityOrderByRatingDesc(city, limit): top-N per city without a sort.
+create index if not exists hotel_city_rating_idx on hotel (city, rating desc);
+
+-- RoomInventoryRepository.findByHotelIdAndNightBetween / existsByHotelIdAndNight are served by the
+-- room_inventory primary key (hotel_id, night, stripe), no extra index to maintain on every reservation.
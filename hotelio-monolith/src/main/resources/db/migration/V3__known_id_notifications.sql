@@ -0,0 +1,23 @@
+-- Publishes every new user, hotel and promo code id on channel known_ids as "<kind>:<id>", whoever inserts it
+-- (the application, fixtures, bulk loads). KnownIdsLoader LISTENs and adds the ids to its Bloom filters.
+
+create or replace function notify_known_id() returns trigger
+    language plpgsql as
+$$
+begin
+    perform pg_notify('known_ids', tg_argv[0] || ':' || (to_jsonb(new) ->> tg_argv[1]));
+    return null;
+end
+$$;
+
+create trigger app_user_known_id
+    after insert on app_user
+    for each row execute function notify_known_id('user', 'id');
+
+create trigger hotel_known_id
+    after insert on hotel
+    for each row execute function notify_known_id('hotel', 'id');
+
+create trigger promo_code_known_id
+    after insert on promo_code
+    for each row execute function notify_known_id('promo', 'code');
@@ -0,0 +1,5 @@
+-- Ticket of a booking submitted with "Prefer: respond-async" (see BookingWriter). It is written in the same
+-- transaction as the booking, so a ticket found here is committed, and one that is not found never was.
+alter table booking add column ticket varchar(36);
+
+create unique index booking_ticket_idx on booking (ticket);
@@ -0,0 +1,72 @@
+package com.hotelio.monolith.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstThenRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = 42 * SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now), "token " + i);
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 10));
+        assertTrue(bucket.tryAcquire(now + SECOND / 10) > 0);
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = -SECOND;
+        bucket.tryAcquire(now);
+
+        long later = now + 60 * SECOND;
+        int granted = 0;
+        while (bucket.tryAcquire(later) == 0) {
+            granted++;
+        }
+        assertEquals(5, granted);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 100);
+        long now = System.nanoTime();
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+}
@@ -0,0 +1,245 @@
+package com.hotelio.monolith.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot repository queries against a Flyway-migrated Postgres holding production-like row counts,
+ * then EXPLAINs the exact SQL Hibernate sent. Fails when a query falls back to a sequential scan or stops
+ * using the index V2__hot_path_indexes.sql created for it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotPathQueryPlanTest {
+
+    private static final int USERS = 20_000;
+    private static final int HOTELS = 20_000;
+    private static final int CITIES = 50;
+    private static final int BOOKINGS = 200_000;
+    private static final int REVIEWS = 200_000;
+    private static final int INVENTORY_HOTELS = 500;
+    private static final int INVENTORY_NIGHTS = 180;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 1, 1);
+
+    private static final List<String> CAPTURED = new ArrayList<>();
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomInventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TestConfiguration
+    static class CaptureSql {
+        @Bean
+        HibernatePropertiesCustomizer captureSqlCustomizer() {
+            StatementInspector inspector = sql -> {
+                CAPTURED.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    void loadDataset() {
+        jdbcTemplate.update("insert into app_user (id, name, email, status, city, active, blacklisted) " +
+                "select 'u' || g, 'User ' || g, 'u' || g || '@example.com', 'ACTIVE', 'City' || (g % ?), true, false " +
+                "from generate_series(1, ?) g", CITIES, USERS);
+        jdbcTemplate.update("insert into hotel (id, city, description, rating, operational, fully_booked, room_count) " +
+                "select 'h' || g, 'City' || (g % ?), 'Hotel ' || g, round((random() * 5)::numeric, 1), true, false, 50 " +
+                "from generate_series(1, ?) g", CITIES, HOTELS);
+        jdbcTemplate.update("insert into booking (user_id, hotel_id, price, check_in, check_out, created_at) " +
+                "select 'u' || (g % ?), 'h' || (g % ?), 100, date '2030-01-01', date '2030-01-03', now() " +
+                "from generate_series(1, ?) g", USERS, HOTELS, BOOKINGS);
+        jdbcTemplate.update("insert into review (id, hotel_id, user_id, text, rating, created_at) " +
+                "select 'r' || g, 'h' || (g % ?), 'u' || (g % ?), 'Review ' || g, 1 + g % 5, current_date " +
+                "from generate_series(1, ?) g", HOTELS, USERS, REVIEWS);
+        jdbcTemplate.update("insert into room_inventory (hotel_id, night, stripe, capacity, reserved) " +
+                "select 'h' || h, date '2030-01-01' + n, s, 13, 0 " +
+                "from generate_series(1, ?) h, generate_series(0, ? - 1) n, generate_series(0, 3) s",
+                INVENTORY_HOTELS, INVENTORY_NIGHTS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void userBookingPageUsesUserIdIndex() {
+        Plan plan = explain(() -> bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc("u42", 0L, Limit.of(20)),
+                "'u42'", "0", "0", "20");
+        plan.assertUsesIndex("booking_user_id_id_idx");
+    }
+
+    @Test
+    void userBookingStreamUsesUserIdIndex() {
+        Plan plan = explain(() -> {
+            try (Stream<?> bookings = bookingRepository.streamByUserIdOrderByIdAsc("u42")) {
+                bookings.count();
+            }
+        }, "'u42'");
+        plan.assertUsesIndex("booking_user_id_id_idx");
+    }
+
+    @Test
+    void hotelReviewsUseHotelIdIndex() {
+        explain(() -> reviewRepository.findByHotelId("h42"), "'h42'")
+                .assertUsesIndex("review_hotel_id_idx");
+    }
+
+    @Test
+    void hotelRatingSumUsesHotelIdIndex() {
+        explain(() -> reviewRepository.sumRatingsForHotel("h42"), "'h42'")
+                .assertUsesIndex("review_hotel_id_idx");
+    }
+
+    @Test
+    void topRatedInCityNeedsNoSort() {
+        Plan plan = explain(() -> hotelRepository.findByCityOrderByRatingDesc("City7", Limit.of(10)),
+                "'City7'", "0", "10");
+        plan.assertUsesIndex("hotel_city_rating_idx");
+        assertFalse(plan.nodeTypes.contains("Sort"), "expected rows in rating order from the index: " + plan);
+    }
+
+    @Test
+    void inventoryRangeUsesPrimaryKey() {
+        LocalDate from = FIRST_NIGHT.plusDays(10);
+        LocalDate to = from.plusDays(3);
+        Plan plan = explain(() -> inventoryRepository.findByHotelIdAndNightBetween("h42", from, to),
+                "'h42'", "'" + from + "'", "'" + to + "'");
+        plan.assertUsesIndex("room_inventory_pkey");
+    }
+
+    /**
+     * Runs the repository call, takes the one statement Hibernate issued and EXPLAINs it through
+     * PREPARE/EXECUTE so the bind parameters keep the types Postgres inferred for them.
+     */
+    private Plan explain(Runnable query, String... parameters) {
+        CAPTURED.clear();
+        query.run();
+        assertEquals(1, CAPTURED.size(), "expected one statement, got " + CAPTURED);
+        String sql = numberParameters(CAPTURED.get(0));
+        assertEquals(parameters.length, sql.split("\\$", -1).length - 1, "parameter count for " + sql);
+
+        String json = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("prepare hot_query as " + sql);
+                try (ResultSet rs = statement.executeQuery(
+                        "explain (format json) execute hot_query(" + String.join(", ", parameters) + ")")) {
+                    rs.next();
+                    return rs.getString(1);
+                } finally {
+                    statement.execute("deallocate hot_query");
+                }
+            }
+        });
+        try {
+            return new Plan(sql, objectMapper.readTree(json).get(0).get("Plan"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable plan for " + sql, e);
+        }
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++n);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static final class Plan {
+        private final String sql;
+        private final String text;
+        private final Set<String> nodeTypes = new TreeSet<>();
+        private final Set<String> indexes = new TreeSet<>();
+
+        private Plan(String sql, JsonNode root) {
+            this.sql = sql;
+            this.text = root.toString();
+            collect(root);
+        }
+
+        private void collect(JsonNode node) {
+            nodeTypes.add(node.path("Node Type").asText());
+            if (node.has("Index Name")) {
+                indexes.add(node.get("Index Name").asText());
+            }
+            node.path("Plans").forEach(this::collect);
+        }
+
+        private void assertUsesIndex(String index) {
+            assertFalse(nodeTypes.contains("Seq Scan"), "sequential scan: " + this);
+            assertTrue(indexes.contains(index), "expected " + index + ": " + this);
+        }
+
+        @Override
+        public String toString() {
+            return sql + " -> " + nodeTypes.stream().collect(Collectors.joining(", ")) + " " + indexes + " " + text;
+        }
+    }
+}
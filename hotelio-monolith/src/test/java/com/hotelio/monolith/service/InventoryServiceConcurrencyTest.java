@@ -0,0 +1,138 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.entity.RoomInventory;
+import com.hotelio.monolith.repository.RoomInventoryRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private RoomInventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "16");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void parallelReservationsForOneNightNeverOversell() throws Exception {
+        String hotelId = createHotel(100);
+        LocalDate night = LocalDate.of(2030, 1, 1);
+        AtomicInteger succeeded = new AtomicInteger();
+
+        runConcurrently(600, attempt -> {
+            if (inventoryService.reserve(hotelId, night, night.plusDays(1))) {
+                succeeded.incrementAndGet();
+            }
+        });
+
+        List<RoomInventory> rows = inventoryRepository.findByHotelIdAndNightBetween(hotelId, night, night);
+        assertEquals(100, succeeded.get());
+        assertEquals(100, rows.stream().mapToInt(RoomInventory::getReserved).sum());
+        assertTrue(rows.stream().allMatch(r -> r.getReserved() <= r.getCapacity()));
+        assertEquals(0, inventoryService.availability(hotelId, night, night.plusDays(1)).get(night));
+    }
+
+    @Test
+    void overlappingMultiNightStaysReleasePartialReservations() throws Exception {
+        String hotelId = createHotel(10);
+        LocalDate first = LocalDate.of(2030, 2, 1);
+        List<LocalDate[]> stays = new CopyOnWriteArrayList<>();
+
+        runConcurrently(400, attempt -> {
+            LocalDate checkIn = first.plusDays(ThreadLocalRandom.current().nextInt(5));
+            LocalDate checkOut = checkIn.plusDays(1 + ThreadLocalRandom.current().nextInt(3));
+            if (inventoryService.reserve(hotelId, checkIn, checkOut)) {
+                stays.add(new LocalDate[]{checkIn, checkOut});
+            }
+        });
+
+        Map<LocalDate, Integer> reserved = inventoryRepository
+                .findByHotelIdAndNightBetween(hotelId, first, first.plusDays(10)).stream()
+                .collect(Collectors.groupingBy(RoomInventory::getNight, Collectors.summingInt(RoomInventory::getReserved)));
+        for (Map.Entry<LocalDate, Integer> night : reserved.entrySet()) {
+            long covering = stays.stream()
+                    .filter(s -> !night.getKey().isBefore(s[0]) && night.getKey().isBefore(s[1]))
+                    .count();
+            assertEquals(covering, night.getValue().longValue(), "reserved rooms on " + night.getKey());
+            assertTrue(night.getValue() <= 10, "oversold " + night.getKey());
+        }
+    }
+
+    private String createHotel(int roomCount) {
+        String hotelId = "stress-hotel-" + ThreadLocalRandom.current().nextInt(1_000_000);
+        jdbcTemplate.update("insert into hotel (id, operational, fully_booked, city, rating, room_count) " +
+                "values (?, true, false, 'Seoul', 4.5, ?)", hotelId, roomCount);
+        return hotelId;
+    }
+
+    private void runConcurrently(int attempts, Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                attempt.run(n);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private interface Attempt {
+        void run(int attempt);
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotelio.monolith.service;
+
+import com.hotelio.monolith.service.KnownIds.Kind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnownIdsTest {
+
+    private final KnownIds knownIds = new KnownIds(true, 0.01, Duration.ofMillis(100), new SimpleMeterRegistry());
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    void everythingIsPossibleBeforeTheFirstRebuild() {
+        knownIds.setCatchUp(timeout -> true);
+
+        assertEquals(Optional.of("x"), knownIds.lookup(Kind.USER, "x", () -> query("x")));
+        assertEquals(List.of("a", "b"), knownIds.retainPossible(Kind.USER, List.of("a", "b")));
+    }
+
+    @Test
+    void rejectedIdIsAbsentOnceCaughtUp() {
+        knownIds.setCatchUp(timeout -> true);
+        knownIds.rebuild(Kind.USER, 100, sink -> sink.accept("known"));
+
+        assertEquals(Optional.empty(), knownIds.lookup(Kind.USER, "unknown", () -> query("unknown")));
+        assertEquals(0, queries.get());
+        assertEquals(List.of("known"), knownIds.retainPossible(Kind.USER, List.of("known", "unknown")));
+    }
+
+    @Test
+    void idNotifiedWhileCatchingUpIsFound() {
+        knownIds.rebuild(Kind.HOTEL, 100, sink -> sink.accept("old"));
+        // committed elsewhere after the build; its notification is applied by the catch-up
+        knownIds.setCatchUp(timeout -> {
+            knownIds.add(Kind.HOTEL, "new");
+            return true;
+        });
+
+        assertEquals(Optional.of("new"), knownIds.lookup(Kind.HOTEL, "new", () -> query("new")));
+        assertEquals(List.of("new"), knownIds.retainPossible(Kind.HOTEL, List.of("new")));
+    }
+
+    @Test
+    void rejectedIdGoesToTheDatabaseWhenCatchUpFails() {
+        knownIds.setCatchUp(timeout -> false);
+        knownIds.rebuild(Kind.PROMO, 100, sink -> sink.accept("old"));
+
+        assertEquals(Optional.of("new"), knownIds.lookup(Kind.PROMO, "new", () -> query("new")));
+        assertEquals(1, queries.get());
+        assertEquals(List.of("old", "new"), knownIds.retainPossible(Kind.PROMO, List.of("old", "new")));
+    }
+
+    @Test
+    void idAddedDuringRebuildSurvivesTheSwap() throws InterruptedException {
+        knownIds.setCatchUp(timeout -> true);
+        knownIds.rebuild(Kind.USER, 100, sink -> sink.accept("before"));
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+
+        Thread rebuild = new Thread(() -> knownIds.rebuild(Kind.USER, 100, sink -> {
+            sink.accept("before");
+            scanning.countDown();
+            await(added);
+        }));
+        rebuild.start();
+        await(scanning);
+        // inserted after the scan read its rows: only the notification carries it
+        knownIds.add(Kind.USER, "during");
+        added.countDown();
+        rebuild.join();
+
+        assertEquals(List.of("before", "during"), knownIds.retainPossible(Kind.USER, List.of("before", "during")));
+    }
+
+    @Test
+    void concurrentInsertsAreNotLostAcrossRebuilds() throws InterruptedException {
+        knownIds.setCatchUp(timeout -> true);
+        List<String> committed = new CopyOnWriteArrayList<>();
+        knownIds.rebuild(Kind.HOTEL, 1_000, sink -> { });
+        // an insert commits, then its notification adds it; a scan sees what committed before it started
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                committed.add("h-" + i);
+                knownIds.add(Kind.HOTEL, "h-" + i);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            knownIds.rebuild(Kind.HOTEL, 10_000, sink -> committed.forEach(sink));
+        }
+        writer.join();
+
+        for (int i = 0; i < 5_000; i++) {
+            String id = "h-" + i;
+            assertTrue(knownIds.lookup(Kind.HOTEL, id, () -> Optional.of(id)).isPresent(), id);
+        }
+    }
+
+    private Optional<String> query(String id) {
+        queries.incrementAndGet();
+        return Set.of("known", "new", "x").contains(id) ? Optional.of(id) : Optional.empty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
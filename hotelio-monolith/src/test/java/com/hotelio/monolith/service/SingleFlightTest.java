@@ -0,0 +1,137 @@
+package com.hotelio.monolith.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight(true, new SimpleMeterRegistry());
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneQuery() throws Exception {
+        Future<String> leader = pool.submit(() -> singleFlight.execute("hotel", "h1", () -> blockingQuery("old")));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        Future<String> follower = pool.submit(() -> singleFlight.execute("hotel", "h1", () -> query("other")));
+        awaitQueued(follower);
+
+        release.countDown();
+        assertEquals("old", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("old", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void callerAfterAWriteDoesNotJoinALookupStartedBeforeIt() throws Exception {
+        Future<String> leader = pool.submit(() -> singleFlight.execute("hotel", "h1", () -> blockingQuery("old")));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        singleFlight.changed("hotel", "h1");
+
+        assertEquals("new", pool.submit(() -> singleFlight.execute("hotel", "h1", () -> query("new")))
+                .get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals("old", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void changeTakesEffectOnlyAfterCommit() throws Exception {
+        Future<String> leader = pool.submit(() -> singleFlight.execute("reviews", "h1", () -> blockingQuery("old")));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            singleFlight.changed("reviews", "h1");
+            // not committed yet: joining the old lookup is still correct
+            Future<String> beforeCommit = pool.submit(() -> singleFlight.execute("reviews", "h1", () -> query("other")));
+            awaitQueued(beforeCommit);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            assertEquals("new", pool.submit(() -> singleFlight.execute("reviews", "h1", () -> query("new")))
+                    .get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertEquals("old", beforeCommit.get(5, TimeUnit.SECONDS));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals("old", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void otherKeysAreUnaffected() throws Exception {
+        Future<String> leader = pool.submit(() -> singleFlight.execute("hotel", "h1", () -> blockingQuery("old")));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        singleFlight.changed("hotel", "h2");
+        Future<String> follower = pool.submit(() -> singleFlight.execute("hotel", "h1", () -> query("other")));
+        awaitQueued(follower);
+
+        release.countDown();
+        assertEquals("old", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        Future<String> leader = pool.submit(() -> singleFlight.execute("user", "u1", () -> {
+            blockingQuery("unused");
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        Future<String> follower = pool.submit(() -> singleFlight.execute("user", "u1", () -> query("other")));
+        awaitQueued(follower);
+
+        release.countDown();
+        Exception e = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("database down", e.getCause().getMessage());
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+    }
+
+    private String blockingQuery(String result) {
+        queries.incrementAndGet();
+        leaderStarted.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private String query(String result) {
+        queries.incrementAndGet();
+        return result;
+    }
+
+    // a follower that would run its own query finishes on its own; one that joined stays blocked
+    private static void awaitQueued(Future<?> follower) throws InterruptedException {
+        Thread.sleep(200);
+        assertTrue(!follower.isDone(), "caller ran its own query instead of joining");
+    }
+}
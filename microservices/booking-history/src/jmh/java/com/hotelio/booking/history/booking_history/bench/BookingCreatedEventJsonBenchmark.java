@@ -0,0 +1,63 @@
+package com.hotelio.booking.history.booking_history.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelio.booking.history.booking_history.kafka.BookingCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of BookingCreatedEvent with the same ObjectMapper setup the Kafka
+ * JsonSerializer/JsonDeserializer use, i.e. the per-message cost on both ends of booking-events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingCreatedEventJsonBenchmark {
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private BookingCreatedEvent event;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        event = BookingCreatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .bookingId(42L)
+                .userId("user-42")
+                .hotelId("hotel-7")
+                .promoCode("SUMMER10")
+                .discountPercent(10.0)
+                .price(90.0)
+                .createdAt(Instant.now())
+                .build();
+        payload = objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public BookingCreatedEvent deserialize() throws IOException {
+        return objectMapper.readValue(payload, BookingCreatedEvent.class);
+    }
+}
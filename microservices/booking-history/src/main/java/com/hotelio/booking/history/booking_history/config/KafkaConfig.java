@@ -1,66 +1,62 @@
 package com.hotelio.booking.history.booking_history.config;
 
-import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
-import com.hotelio.booking.history.booking_history.kafka.BookingCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
-import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
-import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
-import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.util.backoff.FixedBackOff;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.kafka.core.KafkaAdmin;
 
 @Configuration
+@Slf4j
 public class KafkaConfig {
     @Value("${kafka.topics.booking-events}")
     private String bookingEventsTopic;
 
-    @Value("${spring.kafka.bootstrap-servers}")
-    private String bootstrapServers;
+    @Value("${kafka.booking-events.partitions:3}")
+    private int bookingEventsPartitions;
 
-    @Value("${spring.kafka.consumer.group-id}")
-    private String groupId;
+    @Value("${kafka.booking-events.max-concurrency:10}")
+    private int maxConcurrency;
 
     // Create topic if it doesn't exist
     @Bean
     public NewTopic bookingEventsTopic() {
         return TopicBuilder.name(bookingEventsTopic)
-                .partitions(3)
+                .partitions(bookingEventsPartitions)
                 .replicas(1)
                 .build();
     }
 
-    /*@Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka:9092");
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "booking-history-group");
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, BookingCreatedEvent.class);
-
-        return new DefaultKafkaConsumerFactory<>(props);
-    }
-
+    // Boot's listener container factory with one consumer thread per partition of the topic, read at startup:
+    // fewer threads leave partitions waiting on each other, more sit idle
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, BookingCreatedEvent> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, BookingCreatedEvent> factory =
-                new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3); // Match the number of partitions
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory,
+            KafkaAdmin kafkaAdmin) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        int partitions = partitionCount(kafkaAdmin);
+        // every thread saves through its own pooled connection
+        int concurrency = Math.max(1, Math.min(partitions, maxConcurrency));
+        log.info("Consuming {} ({} partitions) with {} threads", bookingEventsTopic, partitions, concurrency);
+        factory.setConcurrency(concurrency);
         return factory;
-    }*/
+    }
+
+    private int partitionCount(KafkaAdmin kafkaAdmin) {
+        try {
+            return kafkaAdmin.describeTopics(bookingEventsTopic).get(bookingEventsTopic).partitions().size();
+        } catch (RuntimeException e) {
+            // first start: the topic is only created from bookingEventsTopic() once the context is up
+            log.info("Could not describe topic {}, assuming {} partitions: {}",
+                    bookingEventsTopic, bookingEventsPartitions, e.getMessage());
+            return bookingEventsPartitions;
+        }
+    }
 }
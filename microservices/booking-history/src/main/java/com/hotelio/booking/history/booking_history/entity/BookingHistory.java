@@ -16,6 +16,9 @@ public class BookingHistory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // redelivered events carry the same id, see BookingHistoryDAO.insertIfAbsent
+    @Column(unique = true)
+    private String eventId;
     private String eventType;
     private Long bookingId;
     private String userId;
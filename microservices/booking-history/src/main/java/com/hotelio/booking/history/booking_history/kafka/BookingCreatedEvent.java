@@ -8,12 +8,14 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.Instant;
 
 @Getter
 @Setter
 @Builder
+@Jacksonized
 @ToString
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class BookingCreatedEvent {
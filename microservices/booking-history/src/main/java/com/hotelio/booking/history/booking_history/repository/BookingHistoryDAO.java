@@ -2,6 +2,19 @@ package com.hotelio.booking.history.booking_history.repository;
 
 import com.hotelio.booking.history.booking_history.entity.BookingHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface BookingHistoryDAO extends JpaRepository<BookingHistory, Long> {
+
+    // events arrive at least once; a second delivery of the same event id inserts nothing
+    @Modifying
+    @Transactional
+    @Query(value = "insert into booking_history (event_id, event_type, booking_id, user_id, hotel_id, promo_code, " +
+            "discount_percent, price, created_at) values (:#{#h.eventId}, :#{#h.eventType}, :#{#h.bookingId}, " +
+            ":#{#h.userId}, :#{#h.hotelId}, :#{#h.promoCode}, :#{#h.discountPercent}, :#{#h.price}, " +
+            ":#{#h.createdAt}) on conflict (event_id) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("h") BookingHistory bookingHistory);
 }
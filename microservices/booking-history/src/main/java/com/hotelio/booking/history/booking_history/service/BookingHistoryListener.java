@@ -20,6 +20,7 @@ public class BookingHistoryListener {
         try {
             log.info("Received JSON message: {}", bookingCreatedEvent.toString());
             val bookingHistory = BookingHistory.builder()
+                    .eventId(bookingCreatedEvent.getEventId())
                     .bookingId(bookingCreatedEvent.getBookingId())
                     .hotelId(bookingCreatedEvent.getHotelId())
                     .userId(bookingCreatedEvent.getUserId())
@@ -28,7 +29,9 @@ public class BookingHistoryListener {
                     .price(bookingCreatedEvent.getPrice())
                     .createdAt(bookingCreatedEvent.getCreatedAt())
                     .build();
-            bookingHistoryDAO.save(bookingHistory);
+            if (bookingHistoryDAO.insertIfAbsent(bookingHistory) == 0) {
+                log.info("Skipping event {} already recorded", bookingCreatedEvent.getEventId());
+            }
         } catch (Exception e) {
             log.error("Failed to process booking event: {}", bookingCreatedEvent, e);
             throw e;
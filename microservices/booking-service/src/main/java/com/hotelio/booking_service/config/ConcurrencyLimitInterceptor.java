@@ -0,0 +1,154 @@
+package com.hotelio.booking_service.config;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sheds gRPC calls beyond the adaptive {@link GradientConcurrencyLimit} with RESOURCE_EXHAUSTED before they
+ * reach the service, so they never queue for a pooled connection. Every method shares one limit: they
+ * compete for the same database. A call holds its slot until its handler has returned, also when the client
+ * cancels earlier; timed out, cancelled and unavailable calls cut the limit. Exports
+ * grpc.server.concurrency.limit, grpc.server.concurrency.in_flight and grpc.server.concurrency.rejected{method}.
+ */
+public class ConcurrencyLimitInterceptor implements ServerInterceptor {
+    private final GradientConcurrencyLimit limit;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitInterceptor(GradientConcurrencyLimit limit, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("grpc.server.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .description("Concurrent gRPC calls currently allowed")
+                .register(meterRegistry);
+        Gauge.builder("grpc.server.concurrency.in_flight", limit, GradientConcurrencyLimit::getInFlight)
+                .description("gRPC calls being served")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String method = call.getMethodDescriptor().getFullMethodName();
+        if (!limit.tryAcquire()) {
+            Counter.builder("grpc.server.concurrency.rejected")
+                    .description("gRPC calls shed with RESOURCE_EXHAUSTED at the concurrency limit")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment();
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("booking-service is at its concurrency limit"),
+                    new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        Permit permit = new Permit();
+        ServerCall<ReqT, RespT> limitedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                permit.end(status);
+                super.close(status, trailers);
+            }
+        };
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(limitedCall, headers);
+        } catch (RuntimeException e) {
+            permit.end(Status.UNKNOWN);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                permit.run(() -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                permit.run(() -> super.onHalfClose());
+            }
+
+            @Override
+            public void onCancel() {
+                permit.end(Status.CANCELLED);
+                permit.run(() -> super.onCancel());
+            }
+
+            @Override
+            public void onComplete() {
+                permit.run(() -> super.onComplete());
+            }
+
+            @Override
+            public void onReady() {
+                permit.run(() -> super.onReady());
+            }
+        };
+    }
+
+    /**
+     * One call's slot in the limit. It is given back once the call has ended (closed, or cancelled by the
+     * client) and no listener callback is running: a cancelled call's handler may still be working in
+     * onHalfClose, holding a connection, and its slot stays taken until it returns.
+     */
+    private final class Permit {
+        private final long started = System.nanoTime();
+        // guarded by this
+        private Status outcome;
+        private int runningCallbacks;
+        private boolean released;
+
+        void run(Runnable callback) {
+            synchronized (this) {
+                runningCallbacks++;
+            }
+            try {
+                callback.run();
+            } catch (RuntimeException | Error e) {
+                end(Status.UNKNOWN);
+                throw e;
+            } finally {
+                synchronized (this) {
+                    runningCallbacks--;
+                }
+                releaseIfDone();
+            }
+        }
+
+        // the first outcome counts: a handler closing after the client cancelled does not turn it into a success
+        void end(Status status) {
+            synchronized (this) {
+                if (outcome == null) {
+                    outcome = status;
+                }
+            }
+            releaseIfDone();
+        }
+
+        private void releaseIfDone() {
+            Status status;
+            synchronized (this) {
+                if (released || outcome == null || runningCallbacks > 0) {
+                    return;
+                }
+                released = true;
+                status = outcome;
+            }
+            switch (status.getCode()) {
+                // only successful calls teach the limit what latency the database gives now
+                case OK -> limit.release(System.nanoTime() - started);
+                // the caller gave up or could not be served in time: the limit is above what the database takes
+                case DEADLINE_EXCEEDED, CANCELLED, UNAVAILABLE -> limit.releaseDropped();
+                default -> limit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.hotelio.booking_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency (the gradient algorithm). Completed calls are averaged over short
+ * windows; each window's average is compared with a slowly moving long-term average. While the two match,
+ * the limit grows by about its square root, the queue a healthy server absorbs. When recent latency rises
+ * above the long-term one by more than the tolerance, the limit is scaled down by their ratio (at most halved
+ * per window), so when Postgres slows down fewer calls wait on it and the excess fails fast instead of
+ * timing out in a queue. Calls that time out or are cancelled carry no usable latency, so they are a drop
+ * signal instead: each window with drops scales the limit by {@value #DROP_BACKOFF}.
+ */
+@Slf4j
+public class GradientConcurrencyLimit {
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // windows for the long-term latency to follow a rise (about a minute under steady load) and a fall
+    private static final int LONG_WINDOWS = 600;
+    private static final int FALL_WINDOWS = 10;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // guarded by this
+    private long windowStart;
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private double longRtt;
+    private long lastDrop = System.nanoTime() - WINDOW_NANOS;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max, got "
+                    + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // the call ended without a latency worth learning from (failed on its own, e.g. invalid argument)
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    // the call timed out, was cancelled or could not be served
+    public void releaseDropped() {
+        releaseDropped(System.nanoTime());
+    }
+
+    void releaseDropped(long now) {
+        inFlight.decrementAndGet();
+        drop(now);
+    }
+
+    public void release(long latencyNanos) {
+        release(latencyNanos, System.nanoTime());
+    }
+
+    void release(long latencyNanos, long now) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        sample(latencyNanos, inFlightBefore, now);
+    }
+
+    // once per window: a burst of timeouts from one slowdown is one signal, not one per call
+    private synchronized void drop(long now) {
+        if (now - lastDrop < WINDOW_NANOS) {
+            return;
+        }
+        lastDrop = now;
+        double previous = limit;
+        limit = Math.max(minLimit, previous * DROP_BACKOFF);
+        if ((int) limit < (int) previous) {
+            log.debug("Concurrency limit down to {} after timed out or cancelled calls", (int) limit);
+        }
+    }
+
+    private synchronized void sample(long latencyNanos, int inFlightBefore, long now) {
+        if (windowCount == 0) {
+            windowStart = now;
+        }
+        windowSum += latencyNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        if (now - windowStart < WINDOW_NANOS || windowCount < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = (double) windowSum / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        // the baseline rises slowly, so queueing the limit itself causes does not become the new normal, and
+        // falls quickly, so it recovers the latency of an unloaded database as soon as it is seen again
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else if (shortRtt > longRtt) {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        } else {
+            longRtt += (shortRtt - longRtt) / FALL_WINDOWS;
+        }
+        // a limit the traffic does not reach says nothing about how far it could go
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        double previous = limit;
+        limit = Math.max(minLimit, Math.min(maxLimit, previous * (1 - SMOOTHING) + target * SMOOTHING));
+        if ((int) limit < (int) previous) {
+            log.debug("Concurrency limit down to {}: latency {} ms against a long-term {} ms",
+                    (int) limit, shortRtt / 1e6, longRtt / 1e6);
+        }
+    }
+}
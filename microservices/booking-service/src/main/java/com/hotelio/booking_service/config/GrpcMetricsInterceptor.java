@@ -0,0 +1,64 @@
+package com.hotelio.booking_service.config;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.common.util.InterceptorOrder;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records grpc.server.calls{method, status} latency histograms for every gRPC method; calls the
+ * client cancels before the server closes them are recorded with status CANCELLED. Runs outside the
+ * concurrency limit, so calls it sheds are recorded with status RESOURCE_EXHAUSTED.
+ */
+@GrpcGlobalServerInterceptor
+@Order(InterceptorOrder.ORDER_TRACING_METRICS)
+@RequiredArgsConstructor
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String method = call.getMethodDescriptor().getFullMethodName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> timedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                record(sample, recorded, method, status.getCode());
+                super.close(status, trailers);
+            }
+        };
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(timedCall, headers)) {
+            @Override
+            public void onCancel() {
+                record(sample, recorded, method, Status.Code.CANCELLED);
+                super.onCancel();
+            }
+        };
+    }
+
+    private void record(Timer.Sample sample, AtomicBoolean recorded, String method, Status.Code code) {
+        if (recorded.compareAndSet(false, true)) {
+            sample.stop(Timer.builder("grpc.server.calls")
+                    .description("Latency of gRPC calls served by booking-service")
+                    .tag("method", method)
+                    .tag("status", code.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
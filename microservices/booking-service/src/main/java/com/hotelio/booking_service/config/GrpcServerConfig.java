@@ -0,0 +1,41 @@
+package com.hotelio.booking_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.common.util.InterceptorOrder;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+@Configuration
+@Slf4j
+public class GrpcServerConfig {
+
+    // spring.threads.virtual.enabled=true: run every gRPC call on its own virtual thread instead of the default cached pool
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public GrpcServerConfigurer virtualThreadGrpcServerConfigurer() {
+        log.info("Serving gRPC calls on virtual threads");
+        return serverBuilder -> serverBuilder.executor(new VirtualThreadTaskExecutor("grpc-call-"));
+    }
+
+    // innermost, so calls it sheds still pass through the metrics interceptor
+    @GrpcGlobalServerInterceptor
+    @Order(InterceptorOrder.ORDER_LAST)
+    @ConditionalOnProperty(name = "booking.grpc.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(
+            @Value("${booking.grpc.concurrency-limit.initial:20}") int initialLimit,
+            @Value("${booking.grpc.concurrency-limit.min:4}") int minLimit,
+            @Value("${booking.grpc.concurrency-limit.max:200}") int maxLimit,
+            MeterRegistry meterRegistry) {
+        log.info("Adaptive gRPC concurrency limit: initial {}, between {} and {}", initialLimit, minLimit, maxLimit);
+        return new ConcurrencyLimitInterceptor(new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit), meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hotelio.booking_service.kafka;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Record key of booking events (kafka.booking-events.key). The producer hashes the key to a partition, so
+ * events with the same key stay in order and events with different keys spread over every partition:
+ * <ul>
+ *     <li>booking-id: even spread, ordered per booking;</li>
+ *     <li>hotel-id: ordered per hotel, but a popular hotel makes its partition the busiest;</li>
+ *     <li>user-id: ordered per user.</li>
+ * </ul>
+ */
+public enum BookingEventKey {
+    BOOKING_ID(event -> Objects.toString(event.getBookingId(), null)),
+    HOTEL_ID(BookingCreatedEvent::getHotelId),
+    USER_ID(BookingCreatedEvent::getUserId);
+
+    private final Function<BookingCreatedEvent, String> key;
+
+    BookingEventKey(Function<BookingCreatedEvent, String> key) {
+        this.key = key;
+    }
+
+    public String keyOf(BookingCreatedEvent event) {
+        return key.apply(event);
+    }
+}
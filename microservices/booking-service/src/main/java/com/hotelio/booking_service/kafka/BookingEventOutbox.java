@@ -0,0 +1,49 @@
+package com.hotelio.booking_service.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelio.booking_service.entity.OutboxEvent;
+import com.hotelio.booking_service.repository.OutboxEventDAO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Stores booking events in the outbox inside the caller's transaction, so an event exists exactly when its
+ * booking was committed; {@link OutboxRelay} publishes it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventOutbox {
+    // the mapper spring-kafka's JsonSerializer uses, so consumers see the same JSON as before the outbox
+    private static final ObjectMapper MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    private final OutboxEventDAO outboxEventDAO;
+    @Value("${kafka.topics.booking-events}")
+    private String bookingEventsTopic;
+    @Value("${kafka.booking-events.key:booking-id}")
+    private BookingEventKey bookingEventKey;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingCreated(BookingCreatedEvent event) {
+        outboxEventDAO.save(OutboxEvent.builder()
+                .topic(bookingEventsTopic)
+                .eventKey(bookingEventKey.keyOf(event))
+                .payload(toJson(event))
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private static String toJson(Object event) {
+        try {
+            return MAPPER.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.hotelio.booking_service.kafka;
+
+import com.hotelio.booking_service.entity.OutboxEvent;
+import com.hotelio.booking_service.repository.OutboxEventDAO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the outbox to Kafka off the request path. One instance relays at a time (an advisory lock held
+ * for the run's transaction), so events leave in id order. Each run reads up to outbox.relay.batch-size
+ * unsent events, sends them through the batching, compressing producer, waits for the acks and marks the
+ * acknowledged events sent in the same transaction; a full batch is followed by the next one at once.
+ * <p>
+ * The first failure ends the batch: the failed event and everything after it stay unsent and go out again,
+ * in order, with the next run, so no event of a key is marked sent ahead of an earlier one. Sending stops as
+ * soon as the producer gives up on an event (no broker within max.block.ms), so an outage costs one such wait
+ * per run, not one per event. Delivery is at least once: consumers must tolerate an eventId seen twice.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventDAO outboxEventDAO;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration retention;
+    private final Counter sent;
+    private final Counter failed;
+
+    public OutboxRelay(OutboxEventDAO outboxEventDAO,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout:PT30S}") Duration sendTimeout,
+                       @Value("${outbox.retention:PT24H}") Duration retention,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventDAO = outboxEventDAO;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+        this.sent = Counter.builder("outbox.relay.sent")
+                .description("Outbox events acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.relay.failed")
+                .description("Outbox event sends that failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT0.1S}")
+    public void relay() {
+        Integer acknowledged;
+        do {
+            acknowledged = transactionTemplate.execute(status -> outboxEventDAO.tryLockRelay() ? relayBatch() : 0);
+        } while (acknowledged != null && acknowledged == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventDAO.findUnsent(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            CompletableFuture<SendResult<String, String>> send;
+            try {
+                send = kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload());
+            } catch (RuntimeException e) {
+                send = CompletableFuture.failedFuture(e);
+            }
+            sends.add(send);
+            // the producer could not take it; the rest of the batch would wait just as long
+            if (send.isCompletedExceptionally()) {
+                break;
+            }
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> acknowledged = new ArrayList<>(sends.size());
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(batch.get(i).getId());
+            } catch (ExecutionException | TimeoutException e) {
+                failed.increment();
+                log.warn("Failed to send outbox event {} to topic {}, retrying it and the {} after it: {}",
+                        batch.get(i).getId(), batch.get(i).getTopic(), batch.size() - i - 1, e.getLocalizedMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!acknowledged.isEmpty()) {
+            outboxEventDAO.markSent(acknowledged, Instant.now());
+            sent.increment(acknowledged.size());
+        }
+        log.debug("Relayed {} of {} outbox events", acknowledged.size(), batch.size());
+        return acknowledged.size();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:PT1H}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(
+                status -> outboxEventDAO.deleteSentBefore(Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} outbox events sent more than {} ago", purged, retention);
+        }
+    }
+}
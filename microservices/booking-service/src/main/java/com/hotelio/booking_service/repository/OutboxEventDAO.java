@@ -0,0 +1,28 @@
+package com.hotelio.booking_service.repository;
+
+import com.hotelio.booking_service.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventDAO extends JpaRepository<OutboxEvent, Long> {
+    // one relay at a time across instances, so events go out in id order; held until the transaction ends
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('outbox_relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    @Query(value = "select * from outbox_event where sent_at is null order by id limit :limit", nativeQuery = true)
+    List<OutboxEvent> findUnsent(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
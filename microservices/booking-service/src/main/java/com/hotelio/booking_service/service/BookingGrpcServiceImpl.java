@@ -2,32 +2,34 @@ package com.hotelio.booking_service.service;
 
 import com.hotelio.booking_service.entity.Booking;
 import com.hotelio.booking_service.kafka.BookingCreatedEvent;
-import com.hotelio.booking_service.kafka.KafkaEventProducer;
+import com.hotelio.booking_service.kafka.BookingEventOutbox;
 import com.hotelio.booking_service.repository.BookingDAO;
 import com.hotelio.proto.booking.*;
 import io.grpc.stub.StreamObserver;
 import io.micrometer.common.util.StringUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @GrpcService
 @RequiredArgsConstructor
+@Slf4j
 public class BookingGrpcServiceImpl extends BookingServiceGrpc.BookingServiceImplBase {
     private final BookingDAO bookingDAO;
-    private final KafkaEventProducer kafkaEventProducer;
+    private final BookingEventOutbox bookingEventOutbox;
+    private final TransactionTemplate transactionTemplate;
     @Override
     public void createBooking(BookingRequest request, StreamObserver<BookingResponse> responseObserver) {
-        System.out.println("Получен запрос на создание бронирования");
-        System.out.println("Used Id: " + request.getUserId());
-        System.out.println("Hotel Id: " + request.getHotelId());
-        System.out.println("Promo code: " + request.getPromoCode());
+        log.info("Получен запрос на создание бронирования: userId={}, hotelId={}, promoCode={}",
+                request.getUserId(), request.getHotelId(), request.getPromoCode());
 
         val booking = Booking.builder()
                 //.id(new Random().nextLong())
@@ -35,19 +37,21 @@ public class BookingGrpcServiceImpl extends BookingServiceGrpc.BookingServiceImp
                 .userId(request.getUserId())
                 .promoCode(request.getPromoCode())
                 .createdAt(Instant.now())
-                .price(new Random().nextDouble())
+                .price(ThreadLocalRandom.current().nextDouble())
                 .build();
 
-        val event = BookingCreatedEvent.builder()
-                .eventId(UUID.randomUUID().toString())
-                .bookingId(booking.getId())
-                .hotelId(booking.getHotelId())
-                .userId(booking.getUserId())
-                .createdAt(booking.getCreatedAt())
-                .promoCode(booking.getPromoCode()).build();
-
-        bookingDAO.save(booking);
-        kafkaEventProducer.sendBookingCreatedEvent(event);
+        // the booking and its event commit together; OutboxRelay publishes the event, off this thread
+        transactionTemplate.executeWithoutResult(status -> {
+            // saved first: the event carries the generated id, which may be its partitioning key
+            bookingDAO.save(booking);
+            bookingEventOutbox.bookingCreated(BookingCreatedEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .bookingId(booking.getId())
+                    .hotelId(booking.getHotelId())
+                    .userId(booking.getUserId())
+                    .createdAt(booking.getCreatedAt())
+                    .promoCode(booking.getPromoCode()).build());
+        });
 
         BookingResponse response = BookingResponse.newBuilder()
                 .setId(booking.getId().toString())
@@ -62,8 +66,7 @@ public class BookingGrpcServiceImpl extends BookingServiceGrpc.BookingServiceImp
 
     @Override
     public void listBookings(BookingListRequest request, StreamObserver<BookingListResponse> responseObserver) {
-        System.out.println("Получен запрос на вывод бронирований");
-        System.out.println("Used Id: " + request.getUserId());
+        log.info("Получен запрос на вывод бронирований: userId={}", request.getUserId());
         val bookings = StringUtils.isNotEmpty(request.getUserId()) ? bookingDAO.findByUserId(request.getUserId()) : bookingDAO.findAll();
         List<BookingResponse> bookingResponses = List.of();
         if(!CollectionUtils.isEmpty(bookings)) {
@@ -0,0 +1,4 @@
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization), for what entities cannot declare.
+
+-- OutboxRelay reads unsent events in id order; sent ones drop out of the index
+CREATE INDEX IF NOT EXISTS outbox_event_unsent_idx ON outbox_event (id) WHERE sent_at IS NULL;
@@ -0,0 +1,192 @@
+package com.hotelio.booking_service.config;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private static final MethodDescriptor<String, String> METHOD = MethodDescriptor.<String, String>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName("booking.BookingService/CreateBooking")
+            .setRequestMarshaller(new NoMarshaller())
+            .setResponseMarshaller(new NoMarshaller())
+            .build();
+
+    private final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 100);
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limit, new SimpleMeterRegistry());
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void cancelledCallKeepsItsPermitUntilTheHandlerReturns() throws Exception {
+        CountDownLatch inHandler = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ServerCall.Listener<String> listener = interceptor.interceptCall(new RecordingCall(), new Metadata(),
+                (call, headers) -> new ServerCall.Listener<String>() {
+                    @Override
+                    public void onHalfClose() {
+                        inHandler.countDown();
+                        await(finish);
+                    }
+                });
+        Future<?> handler = pool.submit(listener::onHalfClose);
+        assertTrue(inHandler.await(5, TimeUnit.SECONDS));
+
+        listener.onCancel();
+        assertEquals(1, limit.getInFlight(), "the handler still holds a connection");
+
+        finish.countDown();
+        handler.get(5, TimeUnit.SECONDS);
+        assertEquals(0, limit.getInFlight());
+        assertEquals(18, limit.getLimit(), "a cancelled call is a drop signal");
+    }
+
+    @Test
+    void closeInsideTheHandlerReleasesOnceItReturns() {
+        ServerCall.Listener<String> listener = interceptor.interceptCall(new RecordingCall(), new Metadata(),
+                (call, headers) -> new ServerCall.Listener<String>() {
+                    @Override
+                    public void onHalfClose() {
+                        call.close(Status.OK, new Metadata());
+                        assertEquals(1, limit.getInFlight());
+                    }
+                });
+
+        listener.onHalfClose();
+        assertEquals(0, limit.getInFlight());
+        listener.onComplete();
+        assertEquals(0, limit.getInFlight());
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void closeRacingCancelReleasesExactlyOnce() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            AtomicReference<ServerCall<String, String>> started = new AtomicReference<>();
+            ServerCall.Listener<String> listener = interceptor.interceptCall(new RecordingCall(), new Metadata(),
+                    (call, headers) -> {
+                        started.set(call);
+                        return new ServerCall.Listener<String>() {
+                        };
+                    });
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> racers = new ArrayList<>();
+            racers.add(pool.submit(() -> {
+                await(go);
+                started.get().close(Status.OK, new Metadata());
+            }));
+            racers.add(pool.submit(() -> {
+                await(go);
+                listener.onCancel();
+            }));
+            go.countDown();
+            for (Future<?> racer : racers) {
+                racer.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(0, limit.getInFlight(), "round " + i);
+        }
+    }
+
+    @Test
+    void handlerFailureReleases() {
+        ServerCall.Listener<String> listener = interceptor.interceptCall(new RecordingCall(), new Metadata(),
+                (call, headers) -> new ServerCall.Listener<String>() {
+                    @Override
+                    public void onHalfClose() {
+                        throw new IllegalStateException("handler failed");
+                    }
+                });
+
+        assertThrows(IllegalStateException.class, listener::onHalfClose);
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void shedsCallsBeyondTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        RecordingCall call = new RecordingCall();
+
+        interceptor.interceptCall(call, new Metadata(), (c, headers) -> {
+            throw new AssertionError("shed calls must not reach the service");
+        });
+
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, call.status.getCode());
+        assertEquals(20, limit.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RecordingCall extends ServerCall<String, String> {
+        private volatile Status status;
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.status = status;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public MethodDescriptor<String, String> getMethodDescriptor() {
+            return METHOD;
+        }
+    }
+
+    private static final class NoMarshaller implements MethodDescriptor.Marshaller<String> {
+        @Override
+        public InputStream stream(String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String parse(InputStream stream) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hotelio.booking_service.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 100);
+    private long now = System.nanoTime();
+
+    @Test
+    void growsWhileLatencyHolds() {
+        windows(10, MILLI);
+
+        assertTrue(limit.getLimit() > 20, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndRecoversWhenItFalls() {
+        windows(10, MILLI);
+        int healthy = limit.getLimit();
+
+        windows(10, 10 * MILLI);
+        int slow = limit.getLimit();
+        assertTrue(slow < healthy * 0.75, "limit " + healthy + " -> " + slow);
+
+        windows(10, MILLI);
+        assertTrue(limit.getLimit() > slow, "limit " + slow + " -> " + limit.getLimit());
+    }
+
+    @Test
+    void ignoresLatencyWhenTrafficStaysFarBelowTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            for (int call = 0; call < 10; call++) {
+                assertTrue(limit.tryAcquire());
+                limit.release(10 * MILLI * (i + 1), now);
+            }
+            now += WINDOW;
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void droppedCallsBackOffOncePerWindow() {
+        acquire(10);
+        for (int i = 0; i < 5; i++) {
+            limit.releaseDropped(now);
+        }
+        assertEquals(18, limit.getLimit());
+
+        limit.releaseDropped(now + WINDOW / 2);
+        assertEquals(18, limit.getLimit());
+
+        limit.releaseDropped(now + WINDOW);
+        assertEquals(16, limit.getLimit());
+        assertEquals(3, limit.getInFlight());
+    }
+
+    @Test
+    void neverBacksOffBelowTheMinimum() {
+        acquire(20);
+        for (int i = 0; i < 20; i++) {
+            limit.releaseDropped(now);
+            now += WINDOW;
+        }
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void rejectsBeyondTheLimit() {
+        acquire(20);
+
+        assertFalse(limit.tryAcquire());
+        limit.release();
+        assertTrue(limit.tryAcquire());
+    }
+
+    // each window runs the limit full and reports every call with the given latency
+    private void windows(int count, long latencyNanos) {
+        for (int i = 0; i < count; i++) {
+            int calls = 0;
+            while (limit.tryAcquire()) {
+                calls++;
+            }
+            for (int call = 0; call < calls; call++) {
+                limit.release(latencyNanos, call == calls - 1 ? now + WINDOW : now);
+            }
+            now += WINDOW + 1;
+        }
+    }
+
+    private void acquire(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(limit.tryAcquire(), "call " + i);
+        }
+    }
+}
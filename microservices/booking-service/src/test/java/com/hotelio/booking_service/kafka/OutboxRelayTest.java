@@ -0,0 +1,127 @@
+package com.hotelio.booking_service.kafka;
+
+import com.hotelio.booking_service.entity.OutboxEvent;
+import com.hotelio.booking_service.repository.OutboxEventDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxEventDAO dao = mock(OutboxEventDAO.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final OutboxRelay relay = new OutboxRelay(dao, kafkaTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            10, Duration.ofSeconds(1), Duration.ofHours(24), new SimpleMeterRegistry());
+
+    // payload -> outcome of its send; payloads not listed are acknowledged
+    private final Map<String, CompletableFuture<SendResult<String, String>>> outcomes = new HashMap<>();
+    private final List<String> sentPayloads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(dao.tryLockRelay()).thenReturn(true);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            String payload = invocation.getArgument(2);
+            sentPayloads.add(payload);
+            return outcomes.getOrDefault(payload, CompletableFuture.completedFuture(null));
+        });
+    }
+
+    @Test
+    void marksEveryAcknowledgedEventSent() {
+        when(dao.findUnsent(10)).thenReturn(events(1, 2, 3));
+
+        relay.relay();
+
+        verify(dao).markSent(eq(List.of(1L, 2L, 3L)), any(Instant.class));
+    }
+
+    @Test
+    void marksOnlyTheEventsBeforeTheFirstFailure() {
+        when(dao.findUnsent(10)).thenReturn(events(1, 2, 3, 4));
+        CompletableFuture<SendResult<String, String>> rejected = new CompletableFuture<>();
+        outcomes.put("p2", rejected);
+        // the broker answers once the batch is flushed
+        doAnswer(invocation -> rejected.completeExceptionally(new NotEnoughReplicasException("not enough replicas")))
+                .when(kafkaTemplate).flush();
+
+        relay.relay();
+
+        // 3 and 4 were acknowledged too, but must not be marked ahead of 2
+        assertEquals(List.of("p1", "p2", "p3", "p4"), sentPayloads);
+        verify(dao).markSent(eq(List.of(1L)), any(Instant.class));
+    }
+
+    @Test
+    void stopsSendingWhenTheProducerGivesUp() {
+        when(dao.findUnsent(10)).thenReturn(events(1, 2, 3, 4));
+        outcomes.put("p2", CompletableFuture.failedFuture(new TimeoutException("no broker within max.block.ms")));
+
+        relay.relay();
+
+        assertEquals(List.of("p1", "p2"), sentPayloads);
+        verify(dao).markSent(eq(List.of(1L)), any(Instant.class));
+    }
+
+    @Test
+    void marksNothingWhenTheFirstEventFails() {
+        when(dao.findUnsent(10)).thenReturn(events(1, 2));
+        outcomes.put("p1", CompletableFuture.failedFuture(new TimeoutException("no broker within max.block.ms")));
+
+        relay.relay();
+
+        verify(dao, never()).markSent(anyCollection(), any());
+    }
+
+    @Test
+    void leavesTheOutboxAloneWhileAnotherInstanceRelays() {
+        when(dao.tryLockRelay()).thenReturn(false);
+
+        relay.relay();
+
+        verify(dao, never()).findUnsent(anyInt());
+        assertEquals(List.of(), sentPayloads);
+    }
+
+    private static List<OutboxEvent> events(long... ids) {
+        List<OutboxEvent> events = new ArrayList<>();
+        for (long id : ids) {
+            events.add(OutboxEvent.builder()
+                    .id(id)
+                    .topic("booking-events")
+                    .eventKey("booking-" + id)
+                    .payload("p" + id)
+                    .createdAt(Instant.EPOCH)
+                    .build());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,141 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop throughput benchmark: N clients each send requests back to back for a fixed
+ * duration and the run reports requests/s, error count and latency percentiles.
+ * Latencies go into one shared fixed-size histogram, so memory does not grow with clients or run length.
+ * Used to compare the monolith on platform threads vs spring.threads.virtual.enabled=true.
+ *
+ * java test/bench/ConcurrencyBench.java [url] [clients] [seconds] [GET|POST]
+ */
+public class ConcurrencyBench {
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/api/bookings/page?userId=test-user-2&limit=50";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String method = args.length > 3 ? args[3] : "GET";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        LatencyHistogram latencies = new LatencyHistogram();
+        CountDownLatch done = new CountDownLatch(clients);
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(Math.min(5, seconds / 5)).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+
+        System.out.printf("%d clients, %ds against %s %s%n", clients, seconds, method, url);
+        for (int i = 0; i < clients; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= end) {
+                            break;
+                        }
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (start < warmupEnd) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.record(System.nanoTime() - start);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-client-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+
+        long total = latencies.count();
+        System.out.printf("requests: %d, errors: %d, throughput: %.1f req/s%n", total, errors.get(), total / (double) seconds);
+        if (total > 0) {
+            System.out.printf("latency ms p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                    latencies.percentile(0.50), latencies.percentile(0.95), latencies.percentile(0.99),
+                    latencies.max());
+        }
+    }
+
+    /**
+     * Log-linear histogram of microseconds: exact below 2^SUB_BITS, then 2^(SUB_BITS-1) buckets per power of
+     * two, so a reported value is at most 1/128 above the true one. Recording is a single atomic increment.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BITS = 8;
+        private static final int HALF = 1 << (SUB_BITS - 1);
+        private final AtomicLongArray counts = new AtomicLongArray((1 << SUB_BITS) + 64 * HALF);
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts.incrementAndGet(index(micros));
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        long count() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+
+        double percentile(double p) {
+            long rank = (long) Math.ceil(count() * p);
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(highestValue(i), maxMicros.get()) / 1e3;
+                }
+            }
+            return max();
+        }
+
+        double max() {
+            return maxMicros.get() / 1e3;
+        }
+
+        static int index(long micros) {
+            if (micros < (1L << SUB_BITS)) {
+                return (int) micros;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS + 1;
+            return (1 << SUB_BITS) + (shift - 1) * HALF + (int) ((micros >> shift) - HALF);
+        }
+
+        // largest value that lands in the bucket
+        static long highestValue(int index) {
+            if (index < (1 << SUB_BITS)) {
+                return index;
+            }
+            int k = index - (1 << SUB_BITS);
+            int shift = k / HALF + 1;
+            long top = k % HALF + HALF;
+            return ((top + 1) << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelio.load;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Release gate against a saved report: a run fails when an operation's p99 grew by more than the tolerance
+ * over the baseline's, or when its error rate exceeds the allowed maximum. Sub-millisecond p99 changes are
+ * ignored; at that scale they are noise from the load generator, not the server.
+ */
+final class BaselineComparison {
+
+    static final double MIN_P99_DELTA_MS = 1.0;
+
+    private BaselineComparison() {
+    }
+
+    static List<String> regressions(Report current, Report baseline, double p99Tolerance, double maxErrorRate) {
+        List<String> regressions = new ArrayList<>();
+        Map<String, Report.Stats> compared = new LinkedHashMap<>(current.operations());
+        compared.put("total", current.total());
+        compared.forEach((name, now) -> {
+            Report.Stats before = "total".equals(name) ? baseline.total() : baseline.operations().get(name);
+            if (before != null && before.count() > 0 && now.count() > 0) {
+                double limit = before.p99Ms() * (1 + p99Tolerance);
+                if (now.p99Ms() > limit && now.p99Ms() - before.p99Ms() >= MIN_P99_DELTA_MS) {
+                    regressions.add(String.format("%s: p99 %.2f ms exceeds baseline %.2f ms + %.0f%%",
+                            name, now.p99Ms(), before.p99Ms(), p99Tolerance * 100));
+                }
+            }
+            if (now.errorRate() > maxErrorRate) {
+                regressions.add(String.format("%s: error rate %.2f%% exceeds %.2f%%",
+                        name, now.errorRate() * 100, maxErrorRate * 100));
+            }
+        });
+        return regressions;
+    }
+
+    static void print(Report current, Report baseline, PrintStream out) {
+        if (current.rate() != baseline.rate() || !current.target().equals(baseline.target())) {
+            out.printf("warning: comparing %s at %.0f req/s with a baseline of %s at %.0f req/s%n",
+                    current.target(), current.rate(), baseline.target(), baseline.rate());
+        }
+        out.printf("%-20s %12s %12s %8s%n", "operation", "base p99 ms", "p99 ms", "change");
+        Map<String, Report.Stats> rows = new LinkedHashMap<>(current.operations());
+        rows.put("total", current.total());
+        rows.forEach((name, now) -> {
+            Report.Stats before = "total".equals(name) ? baseline.total() : baseline.operations().get(name);
+            if (before == null) {
+                out.printf("%-20s %12s %12.2f %8s%n", name, "-", now.p99Ms(), "new");
+            } else {
+                double change = before.p99Ms() == 0 ? 0 : (now.p99Ms() / before.p99Ms() - 1) * 100;
+                out.printf("%-20s %12.2f %12.2f %+7.1f%%%n", name, before.p99Ms(), now.p99Ms(), change);
+            }
+        });
+    }
+}
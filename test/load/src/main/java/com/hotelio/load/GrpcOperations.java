@@ -0,0 +1,53 @@
+package com.hotelio.load;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.hotelio.proto.booking.BookingListRequest;
+import com.hotelio.proto.booking.BookingRequest;
+import com.hotelio.proto.booking.BookingServiceGrpc;
+import io.grpc.Channel;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * booking-service's CreateBooking and ListBookings, with the users and hotels the REST mix books with.
+ */
+final class GrpcOperations {
+
+    private GrpcOperations() {
+    }
+
+    static List<Operation> create(Channel channel, IdSource ids, Duration timeout) {
+        BookingServiceGrpc.BookingServiceFutureStub stub = BookingServiceGrpc.newFutureStub(channel);
+        return List.of(
+                new Operation("grpc-create", 30, () -> completed(stub
+                        .withDeadlineAfter(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .createBooking(BookingRequest.newBuilder()
+                                .setUserId(ids.bookingUser())
+                                .setHotelId(ids.bookingHotel())
+                                .build()))),
+                new Operation("grpc-list", 70, () -> completed(stub
+                        .withDeadlineAfter(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .listBookings(BookingListRequest.newBuilder().setUserId(ids.user()).build()))));
+    }
+
+    // OK status is success; any other status (deadline exceeded included) completes with false
+    private static CompletableFuture<Boolean> completed(ListenableFuture<?> call) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        call.addListener(() -> {
+            try {
+                call.get();
+                result.complete(true);
+            } catch (ExecutionException e) {
+                result.complete(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.complete(false);
+            }
+        }, Runnable::run);
+        return result;
+    }
+}
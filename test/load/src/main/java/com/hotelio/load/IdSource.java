@@ -0,0 +1,85 @@
+package com.hotelio.load;
+
+import com.hotelio.load.dataset.DatasetIds;
+import com.hotelio.load.dataset.Zipf;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Ids the operations send. Against the regression fixtures (test/init-fixtures.sql) they are the fixture rows;
+ * against a generated dataset they are drawn with the generator's Zipf skew, so the hottest hotels and most
+ * active users get most of the traffic. Only called from the runner's scheduling thread.
+ */
+final class IdSource {
+
+    private static final List<String> FIXTURE_USERS = List.of("test-user-1", "test-user-2", "test-user-3");
+    private static final List<String> FIXTURE_HOTELS = List.of("test-hotel-1", "test-hotel-2", "test-hotel-3");
+    private static final List<String> FIXTURE_CITIES = List.of("Seoul", "Busan", "Daegu");
+
+    private final SplittableRandom random;
+    private final Zipf users;
+    private final Zipf hotels;
+    private final Zipf cities;
+    private final int promos;
+
+    private IdSource(SplittableRandom random, Zipf users, Zipf hotels, Zipf cities, int promos) {
+        this.random = random;
+        this.users = users;
+        this.hotels = hotels;
+        this.cities = cities;
+        this.promos = promos;
+    }
+
+    static IdSource fixtures(long seed) {
+        return new IdSource(new SplittableRandom(seed), null, null, null, 0);
+    }
+
+    static IdSource generated(long seed, int users, double userSkew, int hotels, double hotelSkew,
+                              int cities, double citySkew, int promos) {
+        return new IdSource(new SplittableRandom(seed), new Zipf(users, userSkew), new Zipf(hotels, hotelSkew),
+                new Zipf(cities, citySkew), promos);
+    }
+
+    boolean isFixtures() {
+        return users == null;
+    }
+
+    String user() {
+        return isFixtures() ? pick(FIXTURE_USERS) : DatasetIds.user(users.sample(random));
+    }
+
+    String hotel() {
+        return isFixtures() ? pick(FIXTURE_HOTELS) : DatasetIds.hotel(hotels.sample(random));
+    }
+
+    String city() {
+        return isFixtures() ? pick(FIXTURE_CITIES) : DatasetIds.city(cities.sample(random));
+    }
+
+    String promo() {
+        return isFixtures() || promos == 0 ? "TESTCODE1" : DatasetIds.promo(1 + random.nextInt(promos));
+    }
+
+    // a user/hotel pair the monolith accepts a booking for (authorized, operational, trusted)
+    String bookingUser() {
+        return isFixtures() ? "test-user-3" : user();
+    }
+
+    String bookingHotel() {
+        return isFixtures() ? "test-hotel-1" : hotel();
+    }
+
+    // spread over a year of nights so creates do not sell one night out
+    int daysAhead() {
+        return 1 + random.nextInt(365);
+    }
+
+    int nights() {
+        return 1 + random.nextInt(3);
+    }
+
+    private String pick(List<String> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,200 @@
+package com.hotelio.load;
+
+import com.hotelio.load.dataset.Zipf;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consumer scaling of booking events over partitions. For each partition count it creates a fresh topic,
+ * produces the same events keyed the way booking-service keys them, and drains the backlog with one consumer
+ * per partition, the way booking-history's listener container runs. Each event costs {@code work} (standing
+ * in for the booking_history insert), so throughput is bounded by how evenly the keys spread: booking-id
+ * scales with the partitions, hotel-id less so under a popular hotel, and the old constant key not at all.
+ * Every event carries its position among events of the same key in a "seq" header; a consumer seeing them
+ * out of order counts a violation.
+ */
+final class KafkaScaling {
+
+    static final List<String> KEYS = List.of("booking-id", "hotel-id", "user-id", "constant");
+    private static final String SEQ_HEADER = "seq";
+    private static final Duration POLL = Duration.ofMillis(200);
+
+    private final String bootstrap;
+    private final int events;
+    private final String key;
+    private final long workNanos;
+    private final int hotels;
+    private final int users;
+    private final long seed;
+    private final PrintStream out;
+
+    KafkaScaling(String bootstrap, int events, String key, Duration work, int hotels, int users, long seed,
+                 PrintStream out) {
+        if (!KEYS.contains(key)) {
+            throw new IllegalArgumentException("--key must be one of " + KEYS + ", got " + key);
+        }
+        this.bootstrap = bootstrap;
+        this.events = events;
+        this.key = key;
+        this.workNanos = work.toNanos();
+        this.hotels = hotels;
+        this.users = users;
+        this.seed = seed;
+        this.out = out;
+    }
+
+    record Result(int partitions, double seconds, double eventsPerSecond, double busiestShare, long violations) {
+    }
+
+    List<Result> run(List<Integer> partitionCounts) throws Exception {
+        List<Result> results = new ArrayList<>();
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap))) {
+            for (int partitions : partitionCounts) {
+                String topic = "booking-events-scaling-" + partitions + "p-" + UUID.randomUUID().toString().substring(0, 8);
+                admin.createTopics(List.of(new NewTopic(topic, partitions, (short) 1))).all().get();
+                try {
+                    produce(topic);
+                    results.add(consume(topic, partitions));
+                } finally {
+                    admin.deleteTopics(List.of(topic)).all().get();
+                }
+            }
+        }
+        print(results);
+        return results;
+    }
+
+    private void produce(String topic) throws ExecutionException, InterruptedException {
+        Zipf hotelRanks = new Zipf(hotels, 1.0);
+        Zipf userRanks = new Zipf(users, 0.8);
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<String, Long> sequences = new HashMap<>();
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(props)) {
+            for (long bookingId = 1; bookingId <= events; bookingId++) {
+                String hotelId = "gen-hotel-" + hotelRanks.sample(random);
+                String userId = "gen-user-" + userRanks.sample(random);
+                String recordKey = switch (key) {
+                    case "booking-id" -> Long.toString(bookingId);
+                    case "hotel-id" -> hotelId;
+                    case "user-id" -> userId;
+                    default -> "booking-key";
+                };
+                long seq = sequences.merge(recordKey, 1L, Long::sum);
+                ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, recordKey, event(bookingId, hotelId, userId));
+                record.headers().add(SEQ_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(seq).array());
+                producer.send(record);
+            }
+            producer.flush();
+        }
+    }
+
+    // the JSON booking-service sends, see BookingCreatedEvent
+    private static byte[] event(long bookingId, String hotelId, String userId) {
+        return String.format("{\"eventId\":\"%s\",\"eventType\":\"BOOKING_CREATED\",\"bookingId\":%d,"
+                        + "\"userId\":\"%s\",\"hotelId\":\"%s\",\"promoCode\":null,\"createdAt\":\"%s\"}",
+                UUID.randomUUID(), bookingId, userId, hotelId, Instant.now())
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Result consume(String topic, int partitions) throws InterruptedException {
+        long[] counts = new long[partitions];
+        AtomicLong violations = new AtomicLong();
+        List<Thread> consumers = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            Thread consumer = new Thread(() -> counts[partition] = drain(new TopicPartition(topic, partition), violations),
+                    "consumer-" + partition);
+            consumers.add(consumer);
+            consumer.start();
+        }
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long busiest = 0;
+        long total = 0;
+        for (long count : counts) {
+            busiest = Math.max(busiest, count);
+            total += count;
+        }
+        if (total != events) {
+            throw new IllegalStateException("Consumed " + total + " of " + events + " events from " + topic);
+        }
+        return new Result(partitions, seconds, events / seconds, (double) busiest / events, violations.get());
+    }
+
+    // assigned rather than subscribed: no group rebalances in the measurement, one consumer per partition
+    private long drain(TopicPartition partition, AtomicLong violations) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            long end = consumer.endOffsets(List.of(partition)).get(partition);
+            Map<String, Long> lastSeq = new HashMap<>();
+            long consumed = 0;
+            while (consumer.position(partition) < end) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL)) {
+                    long seq = ByteBuffer.wrap(record.headers().lastHeader(SEQ_HEADER).value()).getLong();
+                    Long previous = lastSeq.put(record.key(), seq);
+                    if (previous != null && seq <= previous) {
+                        violations.incrementAndGet();
+                    }
+                    if (workNanos > 0) {
+                        LockSupport.parkNanos(workNanos);
+                    }
+                    consumed++;
+                }
+            }
+            return consumed;
+        }
+    }
+
+    private void print(List<Result> results) {
+        out.printf("%d events keyed by %s, %.1f ms of work each%n", events, key, workNanos / 1e6);
+        out.printf("%-11s %10s %12s %9s %16s %11s%n",
+                "partitions", "seconds", "events/s", "speedup", "busiest share", "violations");
+        double base = results.isEmpty() ? 0 : results.get(0).eventsPerSecond();
+        for (Result r : results) {
+            out.printf("%-11d %10.2f %12.0f %8.2fx %15.1f%% %11d%n", r.partitions(), r.seconds(),
+                    r.eventsPerSecond(), r.eventsPerSecond() / base, r.busiestShare() * 100, r.violations());
+        }
+    }
+}
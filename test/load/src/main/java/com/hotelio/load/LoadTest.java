@@ -0,0 +1,214 @@
+package com.hotelio.load;
+
+import com.hotelio.load.dataset.DatasetGenerator;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generation for Hotelio.
+ *
+ * <pre>
+ * run      --target rest|grpc [--url http://localhost:8080] [--grpc localhost:9090]
+ *          --rate 200 [--duration PT60S] [--warmup PT10S] [--arrivals poisson|uniform]
+ *          [--mix hotel-get=20,reviews=10,...] [--max-in-flight 2000] [--timeout PT5S] [--seed 1]
+ *          [--dataset-users N --dataset-hotels N ...] [--save report.json]
+ *          [--baseline baseline.json] [--p99-tolerance 0.10] [--max-error-rate 0.01]
+ * compare  --report report.json --baseline baseline.json [--p99-tolerance 0.10] [--max-error-rate 0.01]
+ * generate [--monolith-jdbc URL] [--booking-service-jdbc URL] [--booking-history-jdbc URL] [--replace]
+ *          [--seed 42] [--users 1000000] [--hotels 100000] [--cities 200] [--reviews 5000000]
+ *          [--bookings 10000000] [--promos 1000] [--hotel-skew 1.0] [--user-skew 0.8] [--city-skew 0.8]
+ *          [--as-of 2025-01-01]
+ * kafka    [--bootstrap localhost:9092] [--partitions 1,2,3,6] [--events 10000]
+ *          [--key booking-id|hotel-id|user-id|constant] [--work PT0.001S] [--hotels 1000] [--users 10000] [--seed 1]
+ * </pre>
+ *
+ * Exits with 1 when a run or comparison regresses against the baseline, or when kafka sees events of one key
+ * out of order.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LoadTest run|compare|generate|kafka [--option value ...]");
+            System.exit(2);
+        }
+        int status;
+        try {
+            Options options = Options.parse(args, 1);
+            status = switch (args[0]) {
+                case "run" -> run(options);
+                case "compare" -> compare(options);
+                case "generate" -> generate(options);
+                case "kafka" -> kafka(options);
+                default -> throw new IllegalArgumentException("Unknown command " + args[0]);
+            };
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            status = 2;
+        }
+        System.exit(status);
+    }
+
+    private static int run(Options options) throws Exception {
+        String target = options.get("target", "rest");
+        long seed = options.getLong("seed", 1);
+        Duration timeout = options.getDuration("timeout", Duration.ofSeconds(5));
+        IdSource ids = options.has("dataset-users")
+                ? IdSource.generated(seed,
+                options.getInt("dataset-users", 0), options.getDouble("user-skew", 0.8),
+                options.getInt("dataset-hotels", 0), options.getDouble("hotel-skew", 1.0),
+                options.getInt("dataset-cities", 200), options.getDouble("city-skew", 0.8),
+                options.getInt("dataset-promos", 1000))
+                : IdSource.fixtures(seed);
+        OpenLoopRunner runner = new OpenLoopRunner(options.getDouble("rate", 100),
+                !"uniform".equals(options.get("arrivals", "poisson")),
+                options.getInt("max-in-flight", 2000), timeout.plusSeconds(5), System.out);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+
+        Report report;
+        if ("grpc".equals(target)) {
+            ManagedChannel channel = ManagedChannelBuilder.forTarget(options.get("grpc", "localhost:9090"))
+                    .usePlaintext()
+                    .build();
+            try {
+                report = runner.run(target, mix(GrpcOperations.create(channel, ids, timeout), options),
+                        warmup, duration, seed);
+            } finally {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } else if ("rest".equals(target)) {
+            ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(timeout)
+                        .executor(executor)
+                        .build();
+                report = runner.run(target,
+                        mix(RestOperations.create(client, options.get("url", "http://localhost:8080"), ids, timeout), options),
+                        warmup, duration, seed);
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            throw new IllegalArgumentException("--target must be rest or grpc, got " + target);
+        }
+
+        report.print(System.out);
+        if (options.has("save")) {
+            report.save(Path.of(options.get("save", null)));
+        }
+        if (!options.has("baseline")) {
+            return 0;
+        }
+        return gate(report, Report.load(Path.of(options.get("baseline", null))), options);
+    }
+
+    private static int compare(Options options) throws Exception {
+        return gate(Report.load(Path.of(options.required("report"))),
+                Report.load(Path.of(options.required("baseline"))), options);
+    }
+
+    private static int gate(Report current, Report baseline, Options options) {
+        BaselineComparison.print(current, baseline, System.out);
+        List<String> regressions = BaselineComparison.regressions(current, baseline,
+                options.getDouble("p99-tolerance", 0.10), options.getDouble("max-error-rate", 0.01));
+        regressions.forEach(r -> System.out.println("REGRESSION " + r));
+        return regressions.isEmpty() ? 0 : 1;
+    }
+
+    // --mix name=weight,... keeps only the listed operations, with the given weights
+    private static List<Operation> mix(List<Operation> operations, Options options) {
+        if (!options.has("mix")) {
+            return operations;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : options.get("mix", "").split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        List<Operation> mixed = new ArrayList<>();
+        for (Operation op : operations) {
+            Integer weight = weights.remove(op.name());
+            if (weight != null) {
+                mixed.add(op.withWeight(weight));
+            }
+        }
+        if (!weights.isEmpty()) {
+            throw new IllegalArgumentException("Unknown operations in --mix: " + weights.keySet());
+        }
+        return mixed;
+    }
+
+    private static int generate(Options options) throws Exception {
+        DatasetGenerator generator = new DatasetGenerator(new DatasetGenerator.Spec(
+                options.getLong("seed", 42),
+                options.getInt("users", 1_000_000),
+                options.getInt("hotels", 100_000),
+                options.getInt("cities", 200),
+                options.getLong("reviews", 5_000_000),
+                options.getLong("bookings", 10_000_000),
+                options.getInt("promos", 1000),
+                options.getDouble("hotel-skew", 1.0),
+                options.getDouble("user-skew", 0.8),
+                options.getDouble("city-skew", 0.8),
+                LocalDate.parse(options.get("as-of", "2025-01-01"))), System.out);
+        boolean replace = options.flag("replace");
+        if (!options.has("monolith-jdbc") && !options.has("booking-service-jdbc") && !options.has("booking-history-jdbc")) {
+            throw new IllegalArgumentException("Pass at least one of --monolith-jdbc, --booking-service-jdbc, --booking-history-jdbc");
+        }
+
+        if (options.has("monolith-jdbc")) {
+            try (Connection connection = DriverManager.getConnection(options.get("monolith-jdbc", null))) {
+                generator.loadMonolith(connection, replace);
+            }
+        }
+        Long firstBookingId = null;
+        if (options.has("booking-service-jdbc")) {
+            try (Connection connection = DriverManager.getConnection(options.get("booking-service-jdbc", null))) {
+                firstBookingId = generator.loadBookingService(connection, replace);
+            }
+        }
+        if (options.has("booking-history-jdbc")) {
+            try (Connection connection = DriverManager.getConnection(options.get("booking-history-jdbc", null))) {
+                generator.loadBookingHistory(connection, replace, firstBookingId);
+            }
+        }
+        return 0;
+    }
+
+    private static int kafka(Options options) throws Exception {
+        List<Integer> partitions = new ArrayList<>();
+        for (String count : options.get("partitions", "1,2,3,6").split(",")) {
+            partitions.add(Integer.parseInt(count.trim()));
+        }
+        List<KafkaScaling.Result> results = new KafkaScaling(
+                options.get("bootstrap", "localhost:9092"),
+                options.getInt("events", 10_000),
+                options.get("key", "booking-id"),
+                options.getDuration("work", Duration.ofMillis(1)),
+                options.getInt("hotels", 1000),
+                options.getInt("users", 10_000),
+                options.getLong("seed", 1),
+                System.out).run(partitions);
+        return results.stream().anyMatch(r -> r.violations() > 0) ? 1 : 0;
+    }
+}
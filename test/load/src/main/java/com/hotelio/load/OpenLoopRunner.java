@@ -0,0 +1,137 @@
+package com.hotelio.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests start on a fixed schedule (constant or Poisson arrivals at {@code rate}) whether
+ * or not earlier ones have returned, the way independent users arrive. Latency is measured from the
+ * scheduled start, so time a request spends waiting behind a slow server is counted instead of being hidden
+ * by a client that stops sending (coordinated omission). Requests scheduled during the warm-up are sent but
+ * not recorded.
+ */
+final class OpenLoopRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final double rate;
+    private final boolean poisson;
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+    private final PrintStream log;
+
+    OpenLoopRunner(double rate, boolean poisson, int maxInFlight, Duration drainTimeout, PrintStream log) {
+        this.rate = rate;
+        this.poisson = poisson;
+        this.maxInFlight = maxInFlight;
+        this.drainTimeout = drainTimeout;
+        this.log = log;
+    }
+
+    Report run(String target, List<Operation> operations, Duration warmup, Duration duration, long seed)
+            throws InterruptedException {
+        Map<Operation, Recorder> recorders = new LinkedHashMap<>();
+        operations.stream().filter(op -> op.weight() > 0).forEach(op -> recorders.put(op, new Recorder()));
+        if (recorders.isEmpty()) {
+            throw new IllegalArgumentException("No operation has a positive weight");
+        }
+        Operation[] ops = recorders.keySet().toArray(Operation[]::new);
+        int[] cumulative = new int[ops.length];
+        for (int i = 0, sum = 0; i < ops.length; i++) {
+            sum += ops[i].weight();
+            cumulative[i] = sum;
+        }
+        Recorder total = new Recorder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(seed);
+        double intervalNanos = 1e9 / rate;
+
+        String startedAt = Instant.now().toString();
+        log.printf("%s: %.0f req/s (%s arrivals), %ss warm-up + %ss measured%n", target, rate,
+                poisson ? "poisson" : "uniform", warmup.toSeconds(), duration.toSeconds());
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double next = start;
+        while (next < end) {
+            long intended = (long) next;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation op = pick(ops, cumulative, random);
+            boolean measured = intended >= measureFrom;
+            Recorder recorder = recorders.get(op);
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    recorder.dropped.increment();
+                    total.dropped.increment();
+                }
+            } else {
+                CompletableFuture<Boolean> call;
+                try {
+                    call = op.call().get();
+                } catch (RuntimeException e) {
+                    call = CompletableFuture.failedFuture(e);
+                }
+                call.whenComplete((ok, error) -> {
+                    inFlight.release();
+                    if (measured) {
+                        long micros = (System.nanoTime() - intended) / 1000;
+                        boolean success = error == null && Boolean.TRUE.equals(ok);
+                        recorder.record(micros, success);
+                        total.record(micros, success);
+                    }
+                });
+            }
+            next += poisson ? -Math.log(1 - random.nextDouble()) * intervalNanos : intervalNanos;
+        }
+        if (!inFlight.tryAcquire(maxInFlight, drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.printf("%d requests still outstanding after %ss; they are not in the report%n",
+                    maxInFlight - inFlight.availablePermits(), drainTimeout.toSeconds());
+        }
+
+        Map<String, Report.Stats> stats = new LinkedHashMap<>();
+        recorders.forEach((op, recorder) -> stats.put(op.name(), recorder.stats()));
+        return new Report(target, rate, duration.toSeconds(), startedAt, stats, total.stats());
+    }
+
+    private static Operation pick(Operation[] ops, int[] cumulative, SplittableRandom random) {
+        int r = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) {
+                return ops[i];
+            }
+        }
+        return ops[ops.length - 1];
+    }
+
+    private static final class Recorder {
+        private final ConcurrentHistogram micros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void record(long latencyMicros, boolean success) {
+            micros.recordValue(Math.min(Math.max(latencyMicros, 0), HIGHEST_TRACKABLE_MICROS));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        Report.Stats stats() {
+            return Report.Stats.of(micros, errors.sum(), dropped.sum());
+        }
+    }
+}
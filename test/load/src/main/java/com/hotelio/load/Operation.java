@@ -0,0 +1,15 @@
+package com.hotelio.load;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * One request type in the mix. {@code call} starts the request without blocking and completes with whether
+ * the response matched what the fixtures lead us to expect (e.g. 500 for a blacklisted user's booking).
+ */
+record Operation(String name, int weight, Supplier<CompletableFuture<Boolean>> call) {
+
+    Operation withWeight(int weight) {
+        return new Operation(name, weight, call);
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotelio.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --name value} command-line options; a name followed by another option (or nothing) is a flag.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private Options() {
+    }
+
+    static Options parse(String[] args, int from) {
+        Options options = new Options();
+        for (int i = from; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.values.put(name, args[++i]);
+            } else {
+                options.values.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    String required(String name) {
+        String value = values.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    int getInt(String name, int defaultValue) {
+        return has(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        return has(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        return has(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+
+    // ISO-8601 (PT30S) like the application configs
+    Duration getDuration(String name, Duration defaultValue) {
+        return has(name) ? Duration.parse(values.get(name)) : defaultValue;
+    }
+
+    boolean flag(String name) {
+        return Boolean.parseBoolean(values.getOrDefault(name, "false"));
+    }
+}
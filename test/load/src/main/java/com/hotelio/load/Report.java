@@ -0,0 +1,67 @@
+package com.hotelio.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.AbstractHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Result of one run: latency percentiles per operation and overall, measured from each request's intended
+ * start so a stalled server shows up as queueing delay rather than as fewer samples. Saved as JSON to serve
+ * as the baseline of later runs.
+ */
+record Report(String target, double rate, long durationSeconds, String startedAt,
+              Map<String, Report.Stats> operations, Report.Stats total) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * @param errors  responses that did not match the expected outcome, timeouts and transport failures
+     * @param dropped requests not sent because --max-in-flight requests were already outstanding
+     */
+    record Stats(long count, long errors, long dropped, double p50Ms, double p90Ms, double p99Ms, double p999Ms,
+                 double maxMs) {
+
+        static Stats of(AbstractHistogram micros, long errors, long dropped) {
+            return new Stats(micros.getTotalCount(), errors, dropped,
+                    millis(micros.getValueAtPercentile(50)), millis(micros.getValueAtPercentile(90)),
+                    millis(micros.getValueAtPercentile(99)), millis(micros.getValueAtPercentile(99.9)),
+                    millis(micros.getMaxValue()));
+        }
+
+        double errorRate() {
+            long attempted = count + dropped;
+            return attempted == 0 ? 0 : (errors + dropped) / (double) attempted;
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    void print(PrintStream out) {
+        out.printf("%s at %.0f req/s for %ds (started %s)%n", target, rate, durationSeconds, startedAt);
+        out.printf("%-20s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((name, stats) -> printRow(out, name, stats));
+        printRow(out, "total", total);
+        out.printf("achieved %.1f req/s%n", total.count() / (double) durationSeconds);
+    }
+
+    private static void printRow(PrintStream out, String name, Stats s) {
+        out.printf("%-20s %9d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, s.count(), s.errors(), s.dropped(), s.p50Ms(), s.p90Ms(), s.p99Ms(), s.p999Ms(), s.maxMs());
+    }
+
+    void save(Path file) throws IOException {
+        JSON.writeValue(file.toFile(), this);
+    }
+
+    static Report load(Path file) throws IOException {
+        return JSON.readValue(file.toFile(), Report.class);
+    }
+}
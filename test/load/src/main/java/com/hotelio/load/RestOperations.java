@@ -0,0 +1,73 @@
+package com.hotelio.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * The monolith REST calls test/regress.sh checks, with the status each one returns for the fixture data.
+ * Default weights approximate a read-heavy catalogue workload with a trickle of bookings.
+ */
+final class RestOperations {
+
+    private RestOperations() {
+    }
+
+    static List<Operation> create(HttpClient client, String baseUrl, IdSource ids, Duration timeout) {
+        Rest rest = new Rest(client, baseUrl, timeout);
+        IntPredicate ok = status -> status == 200;
+        List<Operation> operations = new ArrayList<>();
+        operations.add(rest.get("user-authorized", 15, () -> "/api/users/" + ids.user() + "/authorized", ok));
+        operations.add(rest.get("hotel-get", 15, () -> "/api/hotels/" + ids.hotel(), ok));
+        operations.add(rest.get("hotel-operational", 10, () -> "/api/hotels/" + ids.hotel() + "/operational", ok));
+        operations.add(rest.get("hotels-by-city", 5, () -> "/api/hotels/by-city?city=" + ids.city(), ok));
+        operations.add(rest.get("top-rated", 10, () -> "/api/hotels/top-rated?city=" + ids.city() + "&limit=10", ok));
+        operations.add(rest.get("reviews", 10, () -> "/api/reviews/hotel/" + ids.hotel(), ok));
+        operations.add(rest.get("hotel-trusted", 10, () -> "/api/reviews/hotel/" + ids.hotel() + "/trusted", ok));
+        operations.add(rest.get("promo-valid", 5, () -> "/api/promos/" + ids.promo() + "/valid", ok));
+        operations.add(rest.get("bookings-page", 10, () -> "/api/bookings/page?userId=" + ids.user() + "&limit=50", ok));
+        // generated users and hotels include blacklisted, inactive and closed ones: any answer is a valid outcome
+        operations.add(rest.post("booking-create", 8, () -> {
+            LocalDate checkIn = LocalDate.now().plusDays(ids.daysAhead());
+            return "/api/bookings?userId=" + ids.bookingUser() + "&hotelId=" + ids.bookingHotel()
+                    + "&checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(ids.nights());
+        }, ids.isFixtures() ? ok : status -> true));
+        if (ids.isFixtures()) {
+            // test-user-0 is inactive: validation rejects the booking (500)
+            operations.add(rest.post("booking-rejected", 2,
+                    () -> "/api/bookings?userId=test-user-0&hotelId=test-hotel-1", status -> status == 500));
+        }
+        return operations;
+    }
+
+    private record Rest(HttpClient client, String baseUrl, Duration timeout) {
+
+        Operation get(String name, int weight, Supplier<String> path, IntPredicate expected) {
+            return send(name, weight, "GET", path, expected);
+        }
+
+        Operation post(String name, int weight, Supplier<String> path, IntPredicate expected) {
+            return send(name, weight, "POST", path, expected);
+        }
+
+        private Operation send(String name, int weight, String method, Supplier<String> path, IntPredicate expected) {
+            return new Operation(name, weight, () -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path.get()))
+                        .timeout(timeout)
+                        .method(method, HttpRequest.BodyPublishers.noBody())
+                        .build();
+                CompletableFuture<HttpResponse<Void>> response =
+                        client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+                return response.thenApply(r -> expected.test(r.statusCode()));
+            });
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotelio.load.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one table over the COPY protocol in CSV format, flushing about 1 MB at a time.
+ * A null value is written as an unquoted empty field, which COPY reads as NULL.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_CHARS = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+    private boolean rowStarted;
+    private long rows;
+
+    private CopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    static CopyWriter open(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "copy " + table + " (" + String.join(", ", columns) + ") from stdin with (format csv)";
+        return new CopyWriter(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql));
+    }
+
+    CopyWriter add(Object value) {
+        if (rowStarted) {
+            buffer.append(',');
+        }
+        rowStarted = true;
+        if (value == null) {
+            return this;
+        }
+        String text = value.toString();
+        if (text.isEmpty() || text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+            buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(text);
+        }
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        rowStarted = false;
+        rows++;
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    long finish() throws SQLException {
+        flush();
+        copyIn.endCopy();
+        return rows;
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    // aborts a copy that did not reach finish(), so the connection is usable for the error report
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.hotelio.load.dataset;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic dataset for the monolith, booking-service and booking-history schemas, bulk-loaded over
+ * COPY. Hotel popularity, user activity and city size follow Zipf distributions, so a few hotels carry most
+ * reviews and bookings and a few power users own long booking histories. Every table is generated from its
+ * own random stream, so the same {@link Spec} always yields the same rows, and booking-service and
+ * booking-history receive the same bookings as the monolith.
+ */
+public final class DatasetGenerator {
+
+    public record Spec(long seed, int users, int hotels, int cities, long reviews, long bookings, int promos,
+                       double hotelSkew, double userSkew, double citySkew, LocalDate asOf) {
+    }
+
+    private static final long USERS = 1;
+    private static final long HOTELS = 2;
+    private static final long PROMOS = 3;
+    private static final long REVIEWS = 4;
+    private static final long BOOKINGS = 5;
+    private static final long QUALITY = 6;
+
+    private static final String[] REVIEW_TEXTS = {
+            "Amazing experience!", "Loved it!", "Very good stay", "Comfortable and clean", "Great service",
+            "Nice but noisy", "Could be cleaner", "Perfect location", "Will come again", "Not worth the price"
+    };
+
+    private final Spec spec;
+    private final PrintStream log;
+    private final Zipf hotelPopularity;
+    private final Zipf userActivity;
+    private final Zipf citySize;
+
+    public DatasetGenerator(Spec spec, PrintStream log) {
+        this.spec = spec;
+        this.log = log;
+        this.hotelPopularity = new Zipf(spec.hotels(), spec.hotelSkew());
+        this.userActivity = new Zipf(spec.users(), spec.userSkew());
+        this.citySize = new Zipf(spec.cities(), spec.citySkew());
+    }
+
+    public void loadMonolith(Connection connection, boolean replace) throws SQLException {
+        prepare(connection, replace, "app_user", "id = '" + DatasetIds.user(1) + "'",
+                "delete from booking where user_id like '" + DatasetIds.USER_PREFIX + "%'",
+                "delete from review where id like '" + DatasetIds.REVIEW_PREFIX + "%'",
+                "delete from hotel_review_stats where hotel_id like '" + DatasetIds.HOTEL_PREFIX + "%'",
+                "delete from room_inventory where hotel_id like '" + DatasetIds.HOTEL_PREFIX + "%'",
+                "delete from promo_code where code like '" + DatasetIds.PROMO_PREFIX + "%'",
+                "delete from hotel where id like '" + DatasetIds.HOTEL_PREFIX + "%'",
+                "delete from app_user where id like '" + DatasetIds.USER_PREFIX + "%'");
+
+        long started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "app_user",
+                "id", "name", "email", "status", "city", "active", "blacklisted")) {
+            SplittableRandom random = random(USERS);
+            for (int rank = 1; rank <= spec.users(); rank++) {
+                double kind = random.nextDouble();
+                copy.add(DatasetIds.user(rank)).add("User " + rank).add(DatasetIds.user(rank) + "@example.test")
+                        .add(kind < 0.02 ? "VIP" : "ACTIVE")
+                        .add(DatasetIds.city(citySize.sample(random)))
+                        .add(kind >= 0.03)
+                        .add(kind >= 0.02 && kind < 0.03)
+                        .endRow();
+            }
+            report("app_user", copy.finish(), started);
+        }
+
+        started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "hotel",
+                "id", "city", "description", "rating", "operational", "fully_booked", "room_count")) {
+            SplittableRandom random = random(HOTELS);
+            for (int rank = 1; rank <= spec.hotels(); rank++) {
+                String city = DatasetIds.city(citySize.sample(random));
+                copy.add(DatasetIds.hotel(rank)).add(city).add("Generated hotel " + rank + " in " + city)
+                        .add(Math.round(quality(rank) * 10) / 10.0)
+                        .add(random.nextDouble() >= 0.02)
+                        .add(random.nextDouble() < 0.01)
+                        .add(20 + random.nextInt(381))
+                        .endRow();
+            }
+            report("hotel", copy.finish(), started);
+        }
+
+        started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "promo_code",
+                "code", "description", "discount", "vip_only", "expired", "valid_until")) {
+            SplittableRandom random = random(PROMOS);
+            for (int n = 1; n <= spec.promos(); n++) {
+                boolean expired = random.nextDouble() < 0.1;
+                copy.add(DatasetIds.promo(n)).add("Generated promo " + n).add(promoDiscount(n))
+                        .add(random.nextDouble() < 0.2)
+                        .add(expired)
+                        .add(expired ? spec.asOf().minusDays(1 + random.nextInt(365))
+                                : spec.asOf().plusDays(30 + random.nextInt(336)))
+                        .endRow();
+            }
+            report("promo_code", copy.finish(), started);
+        }
+
+        started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "review",
+                "id", "hotel_id", "user_id", "text", "rating", "created_at")) {
+            SplittableRandom random = random(REVIEWS);
+            for (long n = 1; n <= spec.reviews(); n++) {
+                int hotel = hotelPopularity.sample(random);
+                long rating = Math.round(quality(hotel) + random.nextGaussian() * 0.8);
+                copy.add(DatasetIds.review(n)).add(DatasetIds.hotel(hotel))
+                        .add(DatasetIds.user(userActivity.sample(random)))
+                        .add(REVIEW_TEXTS[random.nextInt(REVIEW_TEXTS.length)])
+                        .add(Math.max(1, Math.min(5, rating)))
+                        .add(spec.asOf().minusDays(random.nextInt(3 * 365)))
+                        .endRow();
+            }
+            report("review", copy.finish(), started);
+        }
+
+        // the aggregates ReviewService would otherwise build lazily, one hotel at a time, on the first trust check
+        started = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            int rows = statement.executeUpdate("insert into hotel_review_stats (hotel_id, review_count, rating_sum, updated_at) " +
+                    "select hotel_id, count(*), sum(rating), now() from review " +
+                    "where hotel_id like '" + DatasetIds.HOTEL_PREFIX + "%' group by hotel_id " +
+                    "on conflict (hotel_id) do update set review_count = excluded.review_count, " +
+                    "rating_sum = excluded.rating_sum, updated_at = excluded.updated_at");
+            report("hotel_review_stats", rows, started);
+        }
+
+        started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "booking",
+                "user_id", "hotel_id", "promo_code", "discount_percent", "price", "check_in", "check_out", "created_at")) {
+            forEachBooking(booking -> copy.add(booking.userId()).add(booking.hotelId()).add(booking.promoCode())
+                    .add(booking.discountPercent()).add(booking.price())
+                    .add(booking.checkIn()).add(booking.checkOut()).add(booking.createdAt())
+                    .endRow());
+            report("booking", copy.finish(), started);
+        }
+
+        analyze(connection, "app_user", "hotel", "promo_code", "review", "hotel_review_stats", "booking");
+    }
+
+    /**
+     * Loads the bookings into booking-service's table with explicit ids following the current maximum and
+     * moves the id sequence past them. Returns the id of the first generated booking.
+     */
+    public long loadBookingService(Connection connection, boolean replace) throws SQLException {
+        prepare(connection, replace, "booking", "user_id like '" + DatasetIds.USER_PREFIX + "%'",
+                "delete from booking where user_id like '" + DatasetIds.USER_PREFIX + "%'");
+
+        long firstId = queryLong(connection, "select coalesce(max(id), 0) + 1 from booking");
+        long started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "booking",
+                "id", "user_id", "hotel_id", "promo_code", "discount_percent", "price", "created_at")) {
+            long[] id = {firstId};
+            forEachBooking(booking -> copy.add(id[0]++).add(booking.userId()).add(booking.hotelId())
+                    .add(booking.promoCode()).add(booking.discountPercent()).add(booking.price())
+                    .add(booking.createdAt())
+                    .endRow());
+            report("booking (booking-service)", copy.finish(), started);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select setval(pg_get_serial_sequence('booking', 'id'), (select max(id) from booking))");
+        }
+        analyze(connection, "booking");
+        return firstId;
+    }
+
+    /**
+     * Loads one history row per booking, as BookingHistoryListener would have written from the
+     * booking-events topic. {@code firstBookingId} links the rows to the ids booking-service was given;
+     * null numbers them on from the highest booking id already in the history.
+     */
+    public void loadBookingHistory(Connection connection, boolean replace, Long firstBookingId) throws SQLException {
+        if (queryLong(connection, "select count(*) from pg_class where relname = 'booking_history'") == 0) {
+            throw new IllegalStateException("booking_history does not exist yet: start booking-history once so "
+                    + "Hibernate creates it");
+        }
+        prepare(connection, replace, "booking_history", "user_id like '" + DatasetIds.USER_PREFIX + "%'",
+                "delete from booking_history where user_id like '" + DatasetIds.USER_PREFIX + "%'");
+
+        long started = System.nanoTime();
+        try (CopyWriter copy = CopyWriter.open(connection, "booking_history",
+                "booking_id", "user_id", "hotel_id", "promo_code", "discount_percent", "price", "created_at")) {
+            long[] id = {firstBookingId != null ? firstBookingId
+                    : queryLong(connection, "select coalesce(max(booking_id), 0) + 1 from booking_history")};
+            forEachBooking(booking -> copy.add(id[0]++).add(booking.userId()).add(booking.hotelId())
+                    .add(booking.promoCode()).add(booking.discountPercent()).add(booking.price())
+                    .add(booking.createdAt())
+                    .endRow());
+            report("booking_history", copy.finish(), started);
+        }
+        analyze(connection, "booking_history");
+    }
+
+    private record Booking(String userId, String hotelId, String promoCode, double discountPercent, double price,
+                           LocalDate checkIn, LocalDate checkOut, OffsetDateTime createdAt) {
+    }
+
+    private interface BookingSink {
+        void accept(Booking booking) throws SQLException;
+    }
+
+    // a fresh stream per call, so every schema receives the same bookings in the same order
+    private void forEachBooking(BookingSink sink) throws SQLException {
+        SplittableRandom random = random(BOOKINGS);
+        for (long n = 1; n <= spec.bookings(); n++) {
+            String userId = DatasetIds.user(userActivity.sample(random));
+            String hotelId = DatasetIds.hotel(hotelPopularity.sample(random));
+            String promoCode = null;
+            double discount = 0;
+            if (spec.promos() > 0 && random.nextDouble() < 0.1) {
+                int promo = 1 + random.nextInt(spec.promos());
+                promoCode = DatasetIds.promo(promo);
+                discount = promoDiscount(promo);
+            }
+            double price = (50 + random.nextInt(451)) * (100 - discount) / 100;
+            LocalDate checkIn = spec.asOf().minusDays(random.nextInt(2 * 365));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            OffsetDateTime createdAt = checkIn.minusDays(random.nextInt(90))
+                    .atStartOfDay().plusSeconds(random.nextInt(86_400)).atOffset(ZoneOffset.UTC);
+            sink.accept(new Booking(userId, hotelId, promoCode, discount, price, checkIn, checkOut, createdAt));
+        }
+    }
+
+    // the hotel's "true" rating: its listed rating and the centre of its review scores
+    private double quality(int hotelRank) {
+        return 2.0 + 3.0 * new SplittableRandom(spec.seed() ^ (QUALITY << 56) ^ hotelRank).nextDouble();
+    }
+
+    private int promoDiscount(int promo) {
+        return 5 + new SplittableRandom(spec.seed() ^ (PROMOS << 56) ^ promo).nextInt(26);
+    }
+
+    private SplittableRandom random(long table) {
+        return new SplittableRandom(spec.seed() ^ (table << 56));
+    }
+
+    private void prepare(Connection connection, boolean replace, String table, String generatedRow,
+                         String... deletes) throws SQLException {
+        if (replace) {
+            long started = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                for (String delete : deletes) {
+                    statement.executeUpdate(delete);
+                }
+            }
+            log.printf("removed the previous dataset in %.1f s%n", seconds(started));
+        } else if (queryLong(connection, "select count(*) from (select 1 from " + table + " where " + generatedRow
+                + " limit 1) t") > 0) {
+            throw new IllegalStateException(table + " already holds generated rows; pass --replace to regenerate them");
+        }
+    }
+
+    private void analyze(Connection connection, String... tables) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                statement.execute("analyze " + table);
+            }
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void report(String table, long rows, long started) {
+        double seconds = seconds(started);
+        log.printf("%-26s %,12d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / Math.max(seconds, 1e-3));
+    }
+
+    private static double seconds(long started) {
+        return (System.nanoTime() - started) / 1e9;
+    }
+}
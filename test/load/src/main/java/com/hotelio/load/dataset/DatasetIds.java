@@ -0,0 +1,36 @@
+package com.hotelio.load.dataset;
+
+/**
+ * Ids of generated rows. The prefixes keep them apart from the regression fixtures (test-user-*, TESTCODE*)
+ * and let --replace delete a previous run. Rank 1 is the most popular hotel / most active user.
+ */
+public final class DatasetIds {
+
+    public static final String USER_PREFIX = "gen-user-";
+    public static final String HOTEL_PREFIX = "gen-hotel-";
+    public static final String REVIEW_PREFIX = "gen-review-";
+    public static final String PROMO_PREFIX = "GEN-PROMO-";
+
+    private DatasetIds() {
+    }
+
+    public static String user(int rank) {
+        return USER_PREFIX + rank;
+    }
+
+    public static String hotel(int rank) {
+        return HOTEL_PREFIX + rank;
+    }
+
+    public static String review(long n) {
+        return REVIEW_PREFIX + n;
+    }
+
+    public static String promo(int n) {
+        return PROMO_PREFIX + n;
+    }
+
+    public static String city(int rank) {
+        return String.format("City-%04d", rank);
+    }
+}
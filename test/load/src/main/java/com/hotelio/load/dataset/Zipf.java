@@ -0,0 +1,40 @@
+package com.hotelio.load.dataset;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf distribution over ranks 1..n: rank k is drawn with probability proportional to 1/k^skew, so rank 1
+ * is the most popular hotel (or most active user). Sampling is a binary search in a precomputed CDF,
+ * which costs 8 bytes per rank and keeps results identical for a given random sequence.
+ */
+public final class Zipf {
+
+    private final double[] cdf;
+
+    public Zipf(int n, double skew) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf needs at least one rank, got " + n);
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+
+    // 1-based rank
+    public int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        int rank = index >= 0 ? index + 1 : -index;
+        return Math.min(rank, cdf.length);
+    }
+}
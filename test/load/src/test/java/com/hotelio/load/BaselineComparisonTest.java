@@ -0,0 +1,63 @@
+package com.hotelio.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaselineComparisonTest {
+
+    private static final Report BASELINE = report(stats(10_000, 0, 20.0), stats(10_000, 0, 0.4));
+
+    @Test
+    void withinToleranceIsNoRegression() {
+        Report current = report(stats(10_000, 0, 21.9), stats(10_000, 0, 0.4));
+
+        assertTrue(BaselineComparison.regressions(current, BASELINE, 0.10, 0.01).isEmpty());
+    }
+
+    @Test
+    void p99AboveToleranceRegresses() {
+        Report current = report(stats(10_000, 0, 25.0), stats(10_000, 0, 0.4));
+
+        List<String> regressions = BaselineComparison.regressions(current, BASELINE, 0.10, 0.01);
+
+        assertEquals(1, regressions.size(), regressions.toString());
+        assertTrue(regressions.get(0).startsWith("hotel-get: p99"), regressions.toString());
+    }
+
+    @Test
+    void subMillisecondGrowthIsIgnored() {
+        Report current = report(stats(10_000, 0, 20.0), stats(10_000, 0, 0.9));
+
+        assertTrue(BaselineComparison.regressions(current, BASELINE, 0.10, 0.01).isEmpty());
+    }
+
+    @Test
+    void errorsAndDroppedRequestsCountAgainstTheErrorRate() {
+        Report current = report(new Report.Stats(9_900, 50, 100, 1, 2, 20.0, 30, 40), stats(10_000, 0, 0.4));
+
+        List<String> regressions = BaselineComparison.regressions(current, BASELINE, 0.10, 0.01);
+
+        assertEquals(List.of("hotel-get: error rate 1.50% exceeds 1.00%"), regressions);
+    }
+
+    @Test
+    void operationsMissingFromTheBaselineOnlyCheckErrors() {
+        Report current = new Report("rest", 100, 60, "now",
+                Map.of("reviews", stats(1_000, 0, 500.0)), stats(1_000, 0, 0.4));
+
+        assertTrue(BaselineComparison.regressions(current, BASELINE, 0.10, 0.01).isEmpty());
+    }
+
+    private static Report report(Report.Stats hotelGet, Report.Stats total) {
+        return new Report("rest", 100, 60, "now", Map.of("hotel-get", hotelGet), total);
+    }
+
+    private static Report.Stats stats(long count, long errors, double p99Ms) {
+        return new Report.Stats(count, errors, 0, p99Ms / 4, p99Ms / 2, p99Ms, p99Ms * 1.5, p99Ms * 2);
+    }
+}